@@ -26,7 +26,9 @@ public class SparkServer {
     CORSFilter corsFilter = new CORSFilter();
     corsFilter.apply();
     
-    final CampusMap map = new CampusMap();
+    // the server answers many queries over its lifetime, so it pays once at startup
+    //  for the route between every pair of buildings
+    final CampusMap map = new CampusMap(true);
     
     Spark.get("path", new Route() {
       @Override
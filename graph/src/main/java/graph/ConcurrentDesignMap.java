@@ -0,0 +1,315 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * ConcurrentDesignMap represents a mutable map of nodes and edges, like DesignMap,
+ *  that many threads may read and write at the same time.
+ *
+ *  Thread safety:
+ *   Nodes are hashed onto a fixed set of lock stripes. Every read of a node's
+ *   adjacency (listChildren, listParents, getLabels, forEachEdge) holds the read lock
+ *   of that node's stripe, so readers of different nodes, or of the same node, never
+ *   block each other. Writers take the write lock of the stripes of the nodes they
+ *   touch, always in stripe order so they cannot deadlock, and removeNode takes every
+ *   stripe. A reader therefore always sees a node's adjacency either entirely before
+ *   or entirely after any write to it, never halfway through. A search that needs
+ *   the whole graph at a single point in time should run on toCsr, which holds every
+ *   read lock while it copies.
+ *
+ *  Abstract Invariant:
+ *   Each Node and each edge needs to be unique.
+ */
+public class ConcurrentDesignMap<T, E> implements GraphView<T, E> {
+
+    // number of lock stripes, a power of two
+    private static final int STRIPES = 64;
+
+    // The map of nodes and their outgoing edges and destinations
+    // Representation Invariant:
+    //  !children.containsKey(null), and no inner map or label set contains null, and
+    //  children.keySet().equals(parents.keySet()), and
+    //  parents.get(dst).contains(src) iff children.get(src).containsKey(dst), and
+    //  children.get(node) and parents.get(node) are only read or written while holding
+    //      the read or write lock of locks[stripe(node)]
+    //
+    // Abstraction Function:
+    //  AF(this) = a map such that
+    //   the nodes are children.keySet(), and
+    //   the labels of the edges from node i to node j = children.get(node i).get(node j).
+    private final Map<T, Map<T, Set<E>>> children;
+
+    // The map of nodes and the sources of their incoming edges
+    private final Map<T, Set<T>> parents;
+
+    // locks[i] guards the adjacency of every node whose stripe is i
+    private final ReentrantReadWriteLock[] locks;
+
+    // Checks the cheap parts of the representation invariant. The full check would need
+    //  every lock, so it is not run. ConcurrentHashMap rejects null keys by itself.
+    private void checkRep() {
+        assert locks.length == STRIPES: "Lost a lock stripe";
+    }
+
+    /**
+     * Constructs an empty ConcurrentDesignMap
+     * @spec.effects this = a new empty ConcurrentDesignMap
+     */
+    public ConcurrentDesignMap() {
+        this.children = new ConcurrentHashMap<>();
+        this.parents = new ConcurrentHashMap<>();
+        this.locks = new ReentrantReadWriteLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) { locks[i] = new ReentrantReadWriteLock(); }
+        checkRep();
+    }
+
+    /**
+     * Adds a node to this map if it does not already exist
+     * @param newNode the node to be added to this map
+     * @throws IllegalArgumentException if newNode is null
+     * @spec.requires newNode != null
+     * @spec.modifies this
+     * @spec.effects this with node newNode in it
+     */
+    public void addNode(T newNode) throws IllegalArgumentException {
+        if (newNode == null) {
+            throw new IllegalArgumentException("Tried to add a null node.");
+        }
+        Lock lock = locks[stripe(newNode)].writeLock();
+        lock.lock();
+        try {
+            putNode(newNode);
+        } finally {
+            lock.unlock();
+        }
+        checkRep();
+    }
+
+    /**
+     * Adds an edge from a source node to a destination node in this map. If any
+     *  one of the source and destination nodes does not already exist, automatically
+     *  adds the missing node(s) before adding the new edge.
+     * @param src the source node of the edge
+     * @param dst the destination node of this edge
+     * @param label the edge to be added from src to dst in the map
+     * @throws IllegalArgumentException if label is null, src is null, dst is null,
+     *         or the same label already exists from src to dst
+     * @spec.requires src, dst, and label are not null, and edges from src to dst
+     *                do not already contain label.
+     * @spec.modifies this
+     * @spec.effects edges from src to dst in this now contain label
+     */
+    public void addEdge(T src, T dst, E label) throws IllegalArgumentException {
+        if (src == null || dst == null || label == null) {
+            throw new IllegalArgumentException("Null node/label received.");
+        }
+        lockPair(src, dst);
+        try {
+            putNode(src);
+            putNode(dst);
+            Set<E> labels = children.get(src).computeIfAbsent(dst, k -> new HashSet<>());
+            if (!labels.add(label)) {
+                throw new IllegalArgumentException("Duplicate edges.");
+            }
+            parents.get(dst).add(src);
+        } finally {
+            unlockPair(src, dst);
+        }
+        checkRep();
+    }
+
+    /**
+     * Removes a node (if exists) and all edges from and to this node from the map.
+     *  Blocks every other reader and writer while it runs.
+     * @param node the node to be removed from this map
+     * @spec.modifies this
+     * @spec.effects node and all its incoming and outgoing edges are removed from this
+     */
+    public void removeNode(T node) {
+        if (node == null) { return; }
+        lockAll(true);
+        try {
+            if (!children.containsKey(node)) { return; }
+            for (T src: parents.get(node)) { children.get(src).remove(node); }
+            for (T dst: children.get(node).keySet()) { parents.get(dst).remove(node); }
+            children.remove(node);
+            parents.remove(node);
+        } finally {
+            unlockAll(true);
+        }
+        checkRep();
+    }
+
+    /**
+     * Removes from the map an edge (if exists) from source node to destination node
+     * @param src the source node of the edge
+     * @param dst the destination node of the edge
+     * @param label the label of the edge
+     * @spec.modifies this
+     * @spec.effects edge named label from source to destination is removed from this
+     */
+    public void removeEdge(T src, T dst, E label) {
+        if (src == null || dst == null) { return; }
+        lockPair(src, dst);
+        try {
+            Map<T, Set<E>> out = children.get(src);
+            Set<E> labels = out == null ? null : out.get(dst);
+            if (labels != null && labels.remove(label) && labels.isEmpty()) {
+                // get rid of empty set with no edges
+                out.remove(dst);
+                parents.get(dst).remove(src);
+            }
+        } finally {
+            unlockPair(src, dst);
+        }
+        checkRep();
+    }
+
+    @Override
+    public boolean contains(T node) {
+        return node != null && children.containsKey(node);
+    }
+
+    @Override
+    public List<T> listNodes() {
+        return new ArrayList<>(children.keySet());
+    }
+
+    @Override
+    public List<T> listChildren(T source)
+            throws IllegalArgumentException, NoSuchElementException {
+        if (source == null) { throw new IllegalArgumentException("Null node received."); }
+        Lock lock = locks[stripe(source)].readLock();
+        lock.lock();
+        try {
+            Map<T, Set<E>> out = children.get(source);
+            if (out == null) { throw new NoSuchElementException("Node does not exist."); }
+            return new ArrayList<>(out.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<T> listParents(T dest)
+            throws IllegalArgumentException, NoSuchElementException {
+        if (dest == null) { throw new IllegalArgumentException("Null node received."); }
+        Lock lock = locks[stripe(dest)].readLock();
+        lock.lock();
+        try {
+            Set<T> in = parents.get(dest);
+            if (in == null) { throw new NoSuchElementException("Node does not exist."); }
+            return new ArrayList<>(in);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<E> getLabels(T src, T dst) {
+        if (src == null) { return new ArrayList<>(); }
+        Lock lock = locks[stripe(src)].readLock();
+        lock.lock();
+        try {
+            Map<T, Set<E>> out = children.get(src);
+            Set<E> labels = out == null ? null : out.get(dst);
+            return labels == null ? new ArrayList<>() : new ArrayList<>(labels);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *  The read lock of source's stripe is held while action runs, so action must not
+     *  write to this map.
+     */
+    @Override
+    public void forEachEdge(T source, BiConsumer<? super T, ? super E> action)
+            throws IllegalArgumentException, NoSuchElementException {
+        if (source == null || action == null) {
+            throw new IllegalArgumentException("Null node/action received.");
+        }
+        Lock lock = locks[stripe(source)].readLock();
+        lock.lock();
+        try {
+            Map<T, Set<E>> out = children.get(source);
+            if (out == null) { throw new NoSuchElementException("Node does not exist."); }
+            for (Map.Entry<T, Set<E>> child: out.entrySet()) {
+                for (E label: child.getValue()) {
+                    action.accept(child.getKey(), label);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Freezes this map into an immutable compressed sparse row snapshot. Every read
+     *  lock is held while copying, so the snapshot is the whole map at a single point
+     *  in time.
+     * @param weigher gives the cost of each edge label
+     * @throws IllegalArgumentException if weigher is null, or gives a cost that is
+     *         negative or not finite
+     * @return a CsrGraph with the same nodes and edges as this
+     * @spec.requires weigher != null
+     */
+    public CsrGraph<T> toCsr(EdgeWeigher<? super E> weigher) throws IllegalArgumentException {
+        lockAll(false);
+        try {
+            return CsrGraph.of(children, weigher);
+        } finally {
+            unlockAll(false);
+        }
+    }
+
+    // Adds node with empty adjacency if it is missing.
+    //  Requires the write lock of node's stripe.
+    private void putNode(T node) {
+        if (!children.containsKey(node)) {
+            parents.put(node, new HashSet<>());
+            children.put(node, new HashMap<>());
+        }
+    }
+
+    // Gives the lock stripe of a node.
+    private int stripe(T node) {
+        int h = node.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    // Takes the write locks of the stripes of both nodes, lower stripe first.
+    private void lockPair(T a, T b) {
+        int first = Math.min(stripe(a), stripe(b));
+        int second = Math.max(stripe(a), stripe(b));
+        locks[first].writeLock().lock();
+        if (second != first) { locks[second].writeLock().lock(); }
+    }
+
+    // Releases the locks taken by lockPair.
+    private void unlockPair(T a, T b) {
+        int first = Math.min(stripe(a), stripe(b));
+        int second = Math.max(stripe(a), stripe(b));
+        if (second != first) { locks[second].writeLock().unlock(); }
+        locks[first].writeLock().unlock();
+    }
+
+    // Takes every read or write lock, in stripe order.
+    private void lockAll(boolean write) {
+        for (ReentrantReadWriteLock lock: locks) {
+            (write ? lock.writeLock() : lock.readLock()).lock();
+        }
+    }
+
+    // Releases the locks taken by lockAll.
+    private void unlockAll(boolean write) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            (write ? locks[i].writeLock() : locks[i].readLock()).unlock();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * CsrGraph represents an immutable, weighted snapshot of a DesignMap stored in
+ *  compressed sparse row form. Each node is given a dense int id in [0, nodeCount()),
+ *  and the outgoing edges of node u are the edge ids in [firstEdge(u), endEdge(u)).
+ *  Parallel labels between the same pair of nodes are collapsed into one edge whose
+ *  weight is the smallest weight among them.
+ *
+ *  Abstract Invariant:
+ *   Each node has exactly one id, and every edge weight is finite and non-negative.
+ */
+public final class CsrGraph<T> {
+
+    // Representation Invariant:
+    //  nodes != null, offsets != null, targets != null, weights != null, and
+    //  offsets.length == nodes.size() + 1, offsets[0] == 0, offsets[i] <= offsets[i + 1], and
+    //  offsets[nodes.size()] == targets.length == weights.length, and
+    //  0 <= targets[e] < nodes.size() and weights[e] >= 0 for all 0 <= e < targets.length
+    //
+    // Abstraction Function:
+    //  AF(this) = a directed weighted graph such that
+    //   node i = nodes.node(i), and
+    //   there is an edge from node u to node targets[e] with cost weights[e]
+    //      for each offsets[u] <= e < offsets[u + 1].
+
+    // node <-> id
+    private final NodeIndex<T> nodes;
+
+    // start of each node's edge range, plus one trailing entry for the total edge count
+    private final int[] offsets;
+
+    // destination id of each edge
+    private final int[] targets;
+
+    // cost of each edge
+    private final double[] weights;
+
+    // Checks the representation invariant. Only the cheap checks run, since
+    //  the arrays are never modified after construction.
+    private void checkRep() {
+        assert offsets.length == nodes.size() + 1: "Bad offsets length";
+        assert offsets[0] == 0: "Offsets do not start at zero";
+        assert offsets[nodes.size()] == targets.length: "Offsets do not cover all edges";
+        assert targets.length == weights.length: "Targets and weights differ in length";
+    }
+
+    /**
+     * Constructs a snapshot from already built arrays. Only classes in this package build these.
+     * @param nodes the nodes and their ids
+     * @param offsets the start of each node's edge range, with nodes.size() + 1 entries
+     * @param targets the destination id of each edge
+     * @param weights the cost of each edge
+     * @spec.requires the arguments satisfy the representation invariant, nodes is never
+     *                modified, and the arrays are not shared with any other object
+     */
+    CsrGraph(NodeIndex<T> nodes, int[] offsets, int[] targets, double[] weights) {
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        checkRep();
+    }
+
+    /**
+     * Freezes an adjacency map into a snapshot. When several labels go from the same
+     *  source to the same destination, the snapshot keeps only the cheapest one.
+     * @param adjacency the labels of the edges between every pair of nodes, as stored
+     *                  by the mutable graphs in this package
+     * @param weigher gives the cost of each edge label
+     * @throws IllegalArgumentException if weigher is null, or gives a cost that is
+     *         negative or not finite
+     * @return a CsrGraph with the same nodes and edges as adjacency
+     * @spec.requires adjacency != null, every destination in adjacency is also a key
+     *                of adjacency, and adjacency is not modified while this runs
+     */
+    static <T, E> CsrGraph<T> of(Map<T, ? extends Map<T, ? extends Set<E>>> adjacency,
+                                 EdgeWeigher<? super E> weigher) throws IllegalArgumentException {
+        if (weigher == null) { throw new IllegalArgumentException("Null weigher received."); }
+        int n = adjacency.size();
+        NodeIndex<T> nodes = new NodeIndex<>(n);
+        int edgeCount = 0;
+        for (Map.Entry<T, ? extends Map<T, ? extends Set<E>>> entry: adjacency.entrySet()) {
+            nodes.intern(entry.getKey());
+            edgeCount += entry.getValue().size();
+        }
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        int edge = 0;
+        for (int src = 0; src < n; src++) {
+            offsets[src] = edge;
+            for (Map.Entry<T, ? extends Set<E>> out: adjacency.get(nodes.node(src)).entrySet()) {
+                double min = Double.POSITIVE_INFINITY;
+                for (E label: out.getValue()) {
+                    double weight = weigher.weigh(label);
+                    if (!(weight >= 0) || Double.isInfinite(weight)) {
+                        throw new IllegalArgumentException("Edge costs must be finite and non-negative.");
+                    }
+                    min = Math.min(min, weight);
+                }
+                targets[edge] = nodes.idOf(out.getKey());
+                weights[edge] = min;
+                edge++;
+            }
+        }
+        offsets[n] = edge;
+        return new CsrGraph<>(nodes, offsets, targets, weights);
+    }
+
+    /**
+     * @return the index from node to id, for measuring this graph's footprint
+     */
+    NodeIndex<T> nodeIndex() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of nodes in this graph
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Checks if this graph contains node
+     * @param node the node to be checked in this
+     * @return a boolean that is true if this contains node and false otherwise
+     */
+    public boolean contains(T node) {
+        return nodes.contains(node);
+    }
+
+    /**
+     * Looks up the dense id of a node, without allocating
+     * @param node the node to look up
+     * @return the id of node, or -1 if node is not in this graph
+     */
+    public int idOf(T node) {
+        return nodes.idOf(node);
+    }
+
+    /**
+     * Looks up the node with a given id
+     * @param id the id of the node
+     * @throws NoSuchElementException if id is not in [0, nodeCount())
+     * @return the node whose id is id
+     */
+    public T node(int id) throws NoSuchElementException {
+        return nodes.node(id);
+    }
+
+    /**
+     * @param id the id of the source node
+     * @return the first edge id leaving the node
+     * @spec.requires 0 <= id < nodeCount()
+     */
+    public int firstEdge(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * @param id the id of the source node
+     * @return one past the last edge id leaving the node
+     * @spec.requires 0 <= id < nodeCount()
+     */
+    public int endEdge(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * @param edge the id of the edge
+     * @return the id of the node the edge goes to
+     * @spec.requires 0 <= edge < edgeCount()
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @param edge the id of the edge
+     * @return the cost of the edge
+     * @spec.requires 0 <= edge < edgeCount()
+     */
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Builds the reverse of this graph, for searching backward from a destination.
+     *  Every node keeps its id, and every edge from u to v with cost w becomes an
+     *  edge from v to u with cost w. Edge ids are not preserved.
+     * @return a CsrGraph with the same nodes and ids as this and every edge reversed
+     */
+    public CsrGraph<T> transpose() {
+        int n = nodes.size();
+        int[] reverseOffsets = new int[n + 1];
+        for (int target: targets) { reverseOffsets[target + 1]++; }
+        for (int v = 0; v < n; v++) { reverseOffsets[v + 1] += reverseOffsets[v]; }
+
+        int[] next = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[targets.length];
+        double[] reverseWeights = new double[weights.length];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = next[targets[e]]++;
+                reverseTargets[slot] = u;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+        return new CsrGraph<>(nodes, reverseOffsets, reverseTargets, reverseWeights);
+    }
+}
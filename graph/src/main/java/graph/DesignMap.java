@@ -2,6 +2,7 @@ package graph;
 
 import java.util.List;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * DesignMap represents a mutable map of nodes and edges, where each node is
@@ -10,7 +11,7 @@ import java.util.*;
  *  Abstract Invariant:
  *   Each Node and each edge needs to be unique.
  */
-public class DesignMap<T, E> {
+public class DesignMap<T, E> implements GraphView<T, E> {
     // RI: either true or false
     // AF(this) = true when running expensive rep invariant tests, false when running
     //            only cheap tests
@@ -36,6 +37,22 @@ public class DesignMap<T, E> {
     //      k = label of edge from node i to node j.
     private final Map<T, Map<T, Set<E>>> DesignMap;
 
+    // The map of nodes and the sources of their incoming edges, kept in step with DesignMap
+    // Representation Invariant:
+    //  parents.keySet().equals(DesignMap.keySet()), and
+    //  parents.get(dst).contains(src) iff DesignMap.get(src).containsKey(dst)
+    //
+    // Abstraction Function:
+    //  AF(this) = the reverse adjacency of the map, where
+    //   parents.get(node i) = {node j | there is at least one edge from node j to node i}
+    private final Map<T, Set<T>> parents;
+
+    // The initial capacity of the node tables DesignMap and parents, and whether
+    //  the tables of the nodes and edges it started with were made with DesignMapBuilder's
+    //  capacities, kept so that GraphFootprint can estimate the size of every table
+    private final int nodeCapacity;
+    private final boolean presized;
+
     // Checks representation invariant for the entire map, including
     //  checking nulls for all nodes, their outgoing edges, and duplicate edges
     //  with the same source and destination.
@@ -56,6 +73,14 @@ public class DesignMap<T, E> {
                             assert !edges.get(i).equals(edges.get(j)): "Duplicate edges";
                         }
                     }
+                    // verify the reverse index has this edge
+                    assert parents.get(dst).contains(src): "Missing parent";
+                }
+            }
+            assert parents.keySet().equals(DesignMap.keySet()): "Parent index out of sync";
+            for (T dst: parents.keySet()) {
+                for (T src: parents.get(dst)) {
+                    assert DesignMap.get(src).containsKey(dst): "Stale parent";
                 }
             }
         }
@@ -67,6 +92,28 @@ public class DesignMap<T, E> {
      */
     public DesignMap() {
         this.DesignMap = new HashMap<>();
+        this.parents = new HashMap<>();
+        this.nodeCapacity = 16;
+        this.presized = false;
+    }
+
+    /**
+     * Constructs a DesignMap that takes ownership of already loaded adjacency maps.
+     *  Only DesignMapBuilder builds these.
+     * @param children the outgoing adjacency of every node
+     * @param parents the incoming adjacency of every node
+     * @param nodeCapacity the initial capacity children and parents were made with
+     * @spec.requires the maps satisfy the representation invariant, nothing else keeps
+     *                a reference to them, and their inner tables were made with
+     *                DesignMapBuilder's capacities
+     * @spec.effects this = a DesignMap with the nodes and edges in children
+     */
+    DesignMap(Map<T, Map<T, Set<E>>> children, Map<T, Set<T>> parents, int nodeCapacity) {
+        this.DesignMap = children;
+        this.parents = parents;
+        this.nodeCapacity = nodeCapacity;
+        this.presized = true;
+        checkRep();
     }
 
     /**
@@ -82,7 +129,10 @@ public class DesignMap<T, E> {
         if (newNode == null) {
             throw new IllegalArgumentException("Tried to add a null node.");
         }
-        DesignMap.put(newNode, new HashMap<>());
+        if (!this.contains(newNode)) {
+            DesignMap.put(newNode, new HashMap<>());
+            parents.put(newNode, new HashSet<>());
+        }
         checkRep();
     }
 
@@ -121,22 +171,28 @@ public class DesignMap<T, E> {
             Set<E> newEdgeSet = new HashSet<>();
             newEdgeSet.add(label);
             DesignMap.get(src).put(dst, newEdgeSet);
+            parents.get(dst).add(src);
         }
         checkRep();
     }
 
     /**
-     * Removes a node (if exists) and all edges from and to this node from the map
+     * Removes a node (if exists) and all edges from and to this node from the map.
+     *  Takes time proportional to the number of edges touching node, not the size of the map.
      * @param node the node to be removed from this map
      * @spec.modifies this
      * @spec.effects node and all its incoming and outgoing edges are removed from this
      */
     public void removeNode(T node) {
         checkRep();
+        if (!this.contains(node)) { return; }
         // remove edges that go to node
-        for (T str: listNodes()) { DesignMap.get(str).remove(node); }
+        for (T src: parents.get(node)) { DesignMap.get(src).remove(node); }
+        // remove node from the parents of its children
+        for (T dst: DesignMap.get(node).keySet()) { parents.get(dst).remove(node); }
         // remove node and its outgoing edges
         DesignMap.remove(node);
+        parents.remove(node);
         checkRep();
     }
 
@@ -156,6 +212,7 @@ public class DesignMap<T, E> {
             if (labels.size() == 1) { // actual size is 0 after remove
                 // get rid of empty list with no edges
                 DesignMap.get(src).remove(dst);
+                parents.get(dst).remove(src);
             }
         }
         checkRep();
@@ -170,6 +227,7 @@ public class DesignMap<T, E> {
      * @return A list of nodes that are direct destinations from source
      * @spec.requires source != null and DesignMap.contains(source)
      */
+    @Override
     public List<T> listChildren(T source)
             throws IllegalArgumentException, NoSuchElementException {
         checkRep();
@@ -181,23 +239,50 @@ public class DesignMap<T, E> {
     }
 
     /**
-     * Lists all the nodes that can directly reach given destination node
+     * Calls action once for every edge leaving the given source node, passing the
+     *  destination and the label of the edge. Nothing is copied, so action must not
+     *  modify this map. The adjacency maps are walked directly, which creates an iterator
+     *  per child; searches that must not allocate per node should run on toCsr().
+     * @param source the source node
+     * @param action the callback to run for each outgoing edge
+     * @throws IllegalArgumentException if source or action is null
+     * @throws NoSuchElementException if !DesignMap.contains(source)
+     * @spec.requires source != null, action != null, and DesignMap.contains(source)
+     */
+    @Override
+    public void forEachEdge(T source, BiConsumer<? super T, ? super E> action)
+            throws IllegalArgumentException, NoSuchElementException {
+        checkRep();
+        if (source == null || action == null) {
+            throw new IllegalArgumentException("Null node/action received.");
+        }
+        Map<T, Set<E>> children = DesignMap.get(source);
+        if (children == null) { throw new NoSuchElementException("Node does not exist."); }
+        for (Map.Entry<T, Set<E>> child: children.entrySet()) {
+            for (E label: child.getValue()) {
+                action.accept(child.getKey(), label);
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Lists all the nodes that can directly reach given destination node. Takes time
+     *  proportional to the number of such nodes, not the size of the map.
      * @param dest the destination node we want to find the parents of
      * @throws IllegalArgumentException if dest is null
      * @throws NoSuchElementException if !DesignMap.contains(dest)
      * @return List of all the nodes that can directly reach dest
      * @spec.requires dest != null and DesignMap.contains(A)
      */
+    @Override
     public List<T> listParents(T dest)
             throws IllegalArgumentException, NoSuchElementException{
         checkRep();
         if (dest == null) { throw new IllegalArgumentException("Null node received."); }
         if (!this.contains(dest)) { throw new NoSuchElementException("Node does not exist."); }
 
-        List<T> output = new ArrayList<>();
-        for (T str: listNodes()) {
-            if (DesignMap.get(str).containsKey(dest)) { output.add(str); }
-        }
+        List<T> output = new ArrayList<>(parents.get(dest));
         checkRep();
         return output;
     }
@@ -206,6 +291,7 @@ public class DesignMap<T, E> {
      * Lists all the nodes in this
      * @return List of all nodes in this map
      */
+    @Override
     public List<T> listNodes() {
         List<T> output = new ArrayList<>(DesignMap.keySet());
         checkRep();
@@ -218,6 +304,7 @@ public class DesignMap<T, E> {
      * @param dst the destination node of the edges
      * @return list of all edges from src to dst
      */
+    @Override
     public List<E> getLabels(T src, T dst) {
         if (!this.contains(src) || !DesignMap.get(src).containsKey(dst)) {
             return new ArrayList<>();
@@ -232,8 +319,52 @@ public class DesignMap<T, E> {
      * @param node the node to be checked in this
      * @return a boolean that is true if this contains node and false otherwise
      */
+    @Override
     public boolean contains(T node) {
         return DesignMap.containsKey(node);
     }
 
+    /**
+     * Freezes this map into an immutable compressed sparse row snapshot. Later changes
+     *  to this map are not reflected in the snapshot. When several labels go from the
+     *  same source to the same destination, the snapshot keeps only the cheapest one.
+     * @param weigher gives the cost of each edge label
+     * @throws IllegalArgumentException if weigher is null, or gives a cost that is
+     *         negative or not finite
+     * @return a CsrGraph with the same nodes and edges as this
+     * @spec.requires weigher != null
+     */
+    public CsrGraph<T> toCsr(EdgeWeigher<? super E> weigher) throws IllegalArgumentException {
+        checkRep();
+        return CsrGraph.of(DesignMap, weigher);
+    }
+
+    /**
+     * @return the outgoing adjacency of every node, for measuring its footprint
+     */
+    Map<T, Map<T, Set<E>>> children() {
+        return DesignMap;
+    }
+
+    /**
+     * @return the incoming adjacency of every node, for measuring its footprint
+     */
+    Map<T, Set<T>> parents() {
+        return parents;
+    }
+
+    /**
+     * @return the initial capacity of the node tables, for measuring their footprint
+     */
+    int nodeCapacity() {
+        return nodeCapacity;
+    }
+
+    /**
+     * @return whether the tables of the nodes and edges this started with were made with
+     * DesignMapBuilder's capacities, for measuring their footprint
+     */
+    boolean presized() {
+        return presized;
+    }
 }
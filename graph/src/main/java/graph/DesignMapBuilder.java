@@ -0,0 +1,167 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * DesignMapBuilder loads many nodes and edges into a new DesignMap at once. Its hash
+ *  tables are sized up front from the expected node count. Each edge is checked for
+ *  duplicates with one set insertion, without copying any labels. The representation
+ *  invariant is checked once, by build(), instead of several times per edge.
+ *  A builder can only build one DesignMap.
+ */
+public class DesignMapBuilder<T, E> {
+
+    // Initial capacities of each node's table of children and set of parents, and of
+    //  each set of labels, which GraphFootprint also reads to size them
+    static final int CHILDREN_CAPACITY = 4;
+    static final int PARENTS_CAPACITY = 4;
+    static final int LABELS_CAPACITY = 2;
+
+    // Representation Invariant:
+    //  children and parents satisfy the representation invariant of DesignMap, and
+    //  children == null iff build() has been called
+    //
+    // Abstraction Function:
+    //  AF(this) = the DesignMap that build() will return, or nothing once it has been built
+    private Map<T, Map<T, Set<E>>> children;
+
+    // The map of nodes and the sources of their incoming edges
+    private Map<T, Set<T>> parents;
+
+    // The initial capacity of the node tables
+    private final int capacity;
+
+    /**
+     * Constructs a builder for an empty DesignMap
+     * @spec.effects this = a builder with no nodes or edges
+     */
+    public DesignMapBuilder() {
+        this(16);
+    }
+
+    /**
+     * Constructs a builder whose tables hold expectedNodes nodes without resizing
+     * @param expectedNodes the number of nodes expected to be added
+     * @throws IllegalArgumentException if expectedNodes is negative
+     * @spec.effects this = a builder with no nodes or edges
+     */
+    public DesignMapBuilder(int expectedNodes) throws IllegalArgumentException {
+        if (expectedNodes < 0) { throw new IllegalArgumentException("Negative size received."); }
+        this.capacity = (int) Math.min(Integer.MAX_VALUE, expectedNodes * 4L / 3 + 1);
+        this.children = new HashMap<>(capacity);
+        this.parents = new HashMap<>(capacity);
+    }
+
+    /**
+     * Adds a node if it does not already exist
+     * @param newNode the node to be added
+     * @throws IllegalArgumentException if newNode is null
+     * @throws IllegalStateException if build() has already been called
+     * @return this builder
+     * @spec.requires newNode != null
+     * @spec.modifies this
+     * @spec.effects this with node newNode in it
+     */
+    public DesignMapBuilder<T, E> addNode(T newNode)
+            throws IllegalArgumentException, IllegalStateException {
+        checkOpen();
+        if (newNode == null) { throw new IllegalArgumentException("Tried to add a null node."); }
+        putNode(newNode);
+        return this;
+    }
+
+    /**
+     * Adds an edge from a source node to a destination node, adding either node first
+     *  if it does not already exist
+     * @param src the source node of the edge
+     * @param dst the destination node of this edge
+     * @param label the edge to be added from src to dst
+     * @throws IllegalArgumentException if label is null, src is null, dst is null,
+     *         or the same label already exists from src to dst
+     * @throws IllegalStateException if build() has already been called
+     * @return this builder
+     * @spec.requires src, dst, and label are not null, and edges from src to dst
+     *                do not already contain label.
+     * @spec.modifies this
+     * @spec.effects edges from src to dst in this now contain label
+     */
+    public DesignMapBuilder<T, E> addEdge(T src, T dst, E label)
+            throws IllegalArgumentException, IllegalStateException {
+        checkOpen();
+        if (src == null || dst == null || label == null) {
+            throw new IllegalArgumentException("Null node/label received.");
+        }
+        Map<T, Set<E>> out = putNode(src);
+        putNode(dst);
+        Set<E> labels = out.get(dst);
+        if (labels == null) {
+            labels = new HashSet<>(LABELS_CAPACITY);
+            out.put(dst, labels);
+            parents.get(dst).add(src);
+        }
+        if (!labels.add(label)) {
+            throw new IllegalArgumentException("Duplicate edges.");
+        }
+        return this;
+    }
+
+    /**
+     * Adds one edge for every row, reading the source, destination, and label of each
+     *  edge out of the row, so edges can be loaded straight from parsed records
+     * @param rows the records to load, one edge per record
+     * @param src gives the source node of a record's edge
+     * @param dst gives the destination node of a record's edge
+     * @param label gives the label of a record's edge
+     * @throws IllegalArgumentException if any argument is null, or any edge would be
+     *         rejected by addEdge
+     * @throws IllegalStateException if build() has already been called
+     * @return this builder
+     * @spec.modifies this
+     * @spec.effects this with an edge for every record in rows
+     */
+    public <R> DesignMapBuilder<T, E> addEdges(Iterable<? extends R> rows,
+                                               Function<? super R, ? extends T> src,
+                                               Function<? super R, ? extends T> dst,
+                                               Function<? super R, ? extends E> label)
+            throws IllegalArgumentException, IllegalStateException {
+        if (rows == null || src == null || dst == null || label == null) {
+            throw new IllegalArgumentException("Null rows/accessor received.");
+        }
+        for (R row: rows) {
+            addEdge(src.apply(row), dst.apply(row), label.apply(row));
+        }
+        return this;
+    }
+
+    /**
+     * Finishes loading and checks the representation invariant of the result once
+     * @throws IllegalStateException if build() has already been called
+     * @return a DesignMap with every node and edge added to this builder
+     * @spec.modifies this
+     * @spec.effects this can no longer be used
+     */
+    public DesignMap<T, E> build() throws IllegalStateException {
+        checkOpen();
+        DesignMap<T, E> map = new DesignMap<>(children, parents, capacity);
+        children = null;
+        parents = null;
+        return map;
+    }
+
+    // Adds node with empty adjacency if it is missing, and gives its outgoing adjacency.
+    private Map<T, Set<E>> putNode(T node) {
+        Map<T, Set<E>> out = children.get(node);
+        if (out == null) {
+            out = new HashMap<>(CHILDREN_CAPACITY);
+            children.put(node, out);
+            parents.put(node, new HashSet<>(PARENTS_CAPACITY));
+        }
+        return out;
+    }
+
+    // Checks that build() has not been called yet.
+    private void checkOpen() throws IllegalStateException {
+        if (children == null) { throw new IllegalStateException("Builder already built."); }
+    }
+}
@@ -0,0 +1,29 @@
+package graph;
+
+/**
+ * EdgeWeigher gives the cost of travelling along an edge, as a primitive double,
+ *  from the label stored on that edge. Searches use it instead of formatting and
+ *  parsing labels, so weights never round-trip through strings.
+ */
+@FunctionalInterface
+public interface EdgeWeigher<E> {
+
+    /**
+     * Gives the cost of an edge
+     * @param label the label of the edge
+     * @return the cost of travelling along an edge with this label
+     * @spec.requires label != null
+     */
+    double weigh(E label);
+
+    /**
+     * Gives a weigher that reads Number labels directly and falls back to parsing
+     *  the label's string form for any other label type.
+     * @return a weigher that works for any label whose cost is a number
+     */
+    static <E> EdgeWeigher<E> numeric() {
+        return label -> label instanceof Number
+                ? ((Number) label).doubleValue()
+                : Double.parseDouble(label.toString());
+    }
+}
@@ -0,0 +1,309 @@
+package graph;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GraphFootprint is an immutable estimate of how many bytes a graph representation
+ *  takes, broken down by where the bytes go. Estimates assume a 64-bit JVM with
+ *  compressed object pointers (12 byte object headers, 4 byte references, objects
+ *  padded to 8 bytes). HashMap tables start at the capacity the map was created with,
+ *  which is HashMap's default except for the tables DesignMapBuilder sizes up front,
+ *  and are assumed to have grown only as far as their current size needs, so maps
+ *  that have shrunk through removals are underestimated. Nodes added to a DesignMap
+ *  after DesignMapBuilder built it are estimated with the builder's capacities, and
+ *  the outer tables of a GraphVersion with the default capacity. The node
+ *  objects themselves are not counted, since they are shared with the caller and
+ *  every representation holds the same ones. Labels are counted only when they are
+ *  boxed numbers, since other label objects are shared with the caller too.
+ */
+public final class GraphFootprint {
+
+    // initial table capacity of a java.util.HashMap created without one
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // bytes in a java.util.HashMap object, not counting its table
+    private static final long HASH_MAP = 48;
+
+    // bytes in a java.util.HashMap.Node entry
+    private static final long HASH_MAP_ENTRY = 32;
+
+    // bytes in a java.util.HashSet object, not counting its backing HashMap
+    private static final long HASH_SET = 16;
+
+    // bytes in a boxed Double, Long, or Integer
+    private static final long BOXED_NUMBER = 16;
+
+    // bytes in an array header
+    private static final long ARRAY_HEADER = 16;
+
+    // bytes in an object reference
+    private static final long REFERENCE = 4;
+
+    // Representation Invariant:
+    //  nodes >= 0, edges >= 0, and every byte count >= 0
+    //
+    // Abstraction Function:
+    //  AF(this) = an estimate that a graph with nodes nodes and edges edges takes
+    //   mapBytes in HashMap objects and their tables, plus
+    //   entryBytes in HashMap entries, plus
+    //   setWrapperBytes in HashSet objects, plus
+    //   boxedLabelBytes in boxed number labels, plus
+    //   arrayBytes in arrays on the heap, plus
+    //   offHeapBytes of memory outside the heap
+
+    private final long nodes;
+    private final long edges;
+    private final long mapBytes;
+    private final long entryBytes;
+    private final long setWrapperBytes;
+    private final long boxedLabelBytes;
+    private final long arrayBytes;
+    private final long offHeapBytes;
+
+    // Checks the representation invariant.
+    private void checkRep() {
+        assert nodes >= 0 && edges >= 0: "Negative count";
+        assert mapBytes >= 0 && entryBytes >= 0 && setWrapperBytes >= 0: "Negative size";
+        assert boxedLabelBytes >= 0 && arrayBytes >= 0 && offHeapBytes >= 0: "Negative size";
+    }
+
+    // Constructs an estimate from its parts.
+    private GraphFootprint(long nodes, long edges, long mapBytes, long entryBytes,
+                           long setWrapperBytes, long boxedLabelBytes, long arrayBytes,
+                           long offHeapBytes) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.mapBytes = mapBytes;
+        this.entryBytes = entryBytes;
+        this.setWrapperBytes = setWrapperBytes;
+        this.boxedLabelBytes = boxedLabelBytes;
+        this.arrayBytes = arrayBytes;
+        this.offHeapBytes = offHeapBytes;
+        checkRep();
+    }
+
+    /**
+     * Estimates the footprint of a DesignMap, including its reverse index
+     * @param map the map to measure
+     * @throws IllegalArgumentException if map is null
+     * @return the estimated footprint of map
+     */
+    public static <T, E> GraphFootprint of(DesignMap<T, E> map) throws IllegalArgumentException {
+        if (map == null) { throw new IllegalArgumentException("Null map received."); }
+        if (map.presized()) {
+            return ofAdjacency(map.children(), map.parents(), map.nodeCapacity(),
+                    DesignMapBuilder.CHILDREN_CAPACITY, DesignMapBuilder.PARENTS_CAPACITY,
+                    DesignMapBuilder.LABELS_CAPACITY);
+        }
+        return ofAdjacency(map.children(), map.parents(), map.nodeCapacity(),
+                DEFAULT_CAPACITY, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Estimates the footprint of one version of a VersionedDesignMap, as if it were the
+     *  only version alive. Adjacency shared with other versions is counted in full.
+     * @param version the version to measure
+     * @throws IllegalArgumentException if version is null
+     * @return the estimated footprint of version
+     */
+    public static <T, E> GraphFootprint of(GraphVersion<T, E> version)
+            throws IllegalArgumentException {
+        if (version == null) { throw new IllegalArgumentException("Null version received."); }
+        return ofAdjacency(version.children(), version.parents(), DEFAULT_CAPACITY,
+                DEFAULT_CAPACITY, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Estimates the footprint of a CsrGraph
+     * @param graph the graph to measure
+     * @throws IllegalArgumentException if graph is null
+     * @return the estimated footprint of graph
+     */
+    public static GraphFootprint of(CsrGraph<?> graph) throws IllegalArgumentException {
+        if (graph == null) { throw new IllegalArgumentException("Null graph received."); }
+        long n = graph.nodeCount();
+        long m = graph.edgeCount();
+        long arrays = graph.nodeIndex().estimatedBytes() + intArray(n + 1) + intArray(m)
+                + array(m, Double.BYTES);
+        return new GraphFootprint(n, m, 0, 0, 0, 0, arrays, 0);
+    }
+
+    /**
+     * Estimates the footprint of an OffHeapGraph
+     * @param graph the graph to measure
+     * @throws IllegalArgumentException if graph is null
+     * @return the estimated footprint of graph
+     */
+    public static GraphFootprint of(OffHeapGraph<?> graph) throws IllegalArgumentException {
+        if (graph == null) { throw new IllegalArgumentException("Null graph received."); }
+        return new GraphFootprint(graph.nodeCount(), graph.edgeCount(), 0, 0, 0, 0,
+                graph.nodeIndex().estimatedBytes(), graph.offHeapBytes());
+    }
+
+    /**
+     * @return the number of nodes in the measured graph
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of edge labels in the measured graph
+     */
+    public long edges() {
+        return edges;
+    }
+
+    /**
+     * @return the estimated bytes of HashMap objects and their bucket tables
+     */
+    public long mapBytes() {
+        return mapBytes;
+    }
+
+    /**
+     * @return the estimated bytes of HashMap entries, including those behind HashSets
+     */
+    public long entryBytes() {
+        return entryBytes;
+    }
+
+    /**
+     * @return the estimated bytes of HashSet wrapper objects
+     */
+    public long setWrapperBytes() {
+        return setWrapperBytes;
+    }
+
+    /**
+     * @return the estimated bytes of boxed number labels
+     */
+    public long boxedLabelBytes() {
+        return boxedLabelBytes;
+    }
+
+    /**
+     * @return the estimated bytes of arrays on the heap
+     */
+    public long arrayBytes() {
+        return arrayBytes;
+    }
+
+    /**
+     * @return the bytes held outside the heap
+     */
+    public long offHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * @return the estimated total bytes, on and off the heap
+     */
+    public long totalBytes() {
+        return mapBytes + entryBytes + setWrapperBytes + boxedLabelBytes + arrayBytes
+                + offHeapBytes;
+    }
+
+    /**
+     * @return the estimated total bytes divided by the number of nodes, or 0 if there
+     * are no nodes
+     */
+    public double bytesPerNode() {
+        return nodes == 0 ? 0 : (double) totalBytes() / nodes;
+    }
+
+    /**
+     * @return the estimated total bytes divided by the number of edges, or 0 if there
+     * are no edges
+     */
+    public double bytesPerEdge() {
+        return edges == 0 ? 0 : (double) totalBytes() / edges;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d nodes, %d edges, %d bytes (%.1f per node, %.1f per edge): "
+                        + "maps %d, entries %d, set wrappers %d, boxed labels %d, arrays %d, "
+                        + "off-heap %d",
+                nodes, edges, totalBytes(), bytesPerNode(), bytesPerEdge(), mapBytes,
+                entryBytes, setWrapperBytes, boxedLabelBytes, arrayBytes, offHeapBytes);
+    }
+
+    /**
+     * @param length the number of references in an Object[]
+     * @return the estimated bytes of the array
+     */
+    static long referenceArray(long length) {
+        return array(length, REFERENCE);
+    }
+
+    /**
+     * @param length the number of entries in an int[]
+     * @return the estimated bytes of the array
+     */
+    static long intArray(long length) {
+        return array(length, Integer.BYTES);
+    }
+
+    // Estimates a map of nodes to outgoing labels plus a map of nodes to parents, given
+    //  the initial capacity of the two node tables, of each node's children and parents,
+    //  and of each set of labels.
+    private static <T, E> GraphFootprint ofAdjacency(
+            Map<T, ? extends Map<T, ? extends Set<E>>> children, Map<T, ? extends Set<T>> parents,
+            int nodeCapacity, int childrenCapacity, int parentsCapacity, int labelsCapacity) {
+        long maps = 0;
+        long entries = 0;
+        long sets = 0;
+        long boxed = 0;
+        long edges = 0;
+        maps += hashMap(children.size(), nodeCapacity);
+        entries += HASH_MAP_ENTRY * children.size();
+        for (Map<T, ? extends Set<E>> out: children.values()) {
+            maps += hashMap(out.size(), childrenCapacity);
+            entries += HASH_MAP_ENTRY * out.size();
+            for (Set<E> labels: out.values()) {
+                // each HashSet is a wrapper around its own HashMap
+                sets += HASH_SET;
+                maps += hashMap(labels.size(), labelsCapacity);
+                entries += HASH_MAP_ENTRY * labels.size();
+                edges += labels.size();
+                for (E label: labels) {
+                    if (label instanceof Double || label instanceof Long
+                            || label instanceof Integer) {
+                        boxed += BOXED_NUMBER;
+                    }
+                }
+            }
+        }
+        maps += hashMap(parents.size(), nodeCapacity);
+        entries += HASH_MAP_ENTRY * parents.size();
+        for (Set<T> in: parents.values()) {
+            sets += HASH_SET;
+            maps += hashMap(in.size(), parentsCapacity);
+            entries += HASH_MAP_ENTRY * in.size();
+        }
+        return new GraphFootprint(children.size(), edges, maps, entries, sets, boxed, 0, 0);
+    }
+
+    // Estimates a HashMap object created with initialCapacity and its table, without its
+    //  entries. The table starts at the next power of two, and doubles whenever the map
+    //  holds more than three quarters of it.
+    private static long hashMap(long size, int initialCapacity) {
+        if (size == 0) { return HASH_MAP; } // the table is allocated lazily
+        long capacity = Long.highestOneBit(Math.max(1, initialCapacity) * 2L - 1);
+        while (capacity * 3 / 4 < size) { capacity *= 2; }
+        return HASH_MAP + referenceArray(capacity);
+    }
+
+    // Estimates an array of length elements of elementBytes bytes each.
+    private static long array(long length, long elementBytes) {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    // Rounds bytes up to the 8 byte object alignment.
+    private static long align(long bytes) {
+        return (bytes + 7) / 8 * 8;
+    }
+}
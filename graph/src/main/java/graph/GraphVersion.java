@@ -0,0 +1,146 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * GraphVersion represents one immutable, published version of a VersionedDesignMap.
+ *  A search that holds a GraphVersion sees exactly the nodes and edges of that version
+ *  for as long as it runs, no matter what writers publish in the meantime, and reading
+ *  it never takes a lock.
+ *
+ *  Abstract Invariant:
+ *   Each Node and each edge needs to be unique, and nothing in this ever changes.
+ */
+public final class GraphVersion<T, E> implements GraphView<T, E> {
+
+    // Representation Invariant:
+    //  children, parents, and every map and set reachable from them are never modified
+    //      once this is constructed, and
+    //  !children.containsKey(null), and no inner map or label set contains null, and
+    //  children.keySet().equals(parents.keySet()), and
+    //  parents.get(dst).contains(src) iff children.get(src).containsKey(dst), and
+    //  version >= 0
+    //
+    // Abstraction Function:
+    //  AF(this) = version number version of a map such that
+    //   the nodes are children.keySet(), and
+    //   the labels of the edges from node i to node j = children.get(node i).get(node j).
+    //  Inner maps and sets may be shared with other versions, which is safe because
+    //  no version ever modifies them.
+    private final Map<T, Map<T, Set<E>>> children;
+
+    // The map of nodes and the sources of their incoming edges
+    private final Map<T, Set<T>> parents;
+
+    // The number of versions published before this one
+    private final long version;
+
+    // Checks the cheap parts of the representation invariant.
+    private void checkRep() {
+        assert !children.containsKey(null): "Null node";
+        assert children.size() == parents.size(): "Parent index out of sync";
+        assert version >= 0: "Negative version";
+    }
+
+    /**
+     * Constructs a version from maps that will never be modified again. Only
+     *  VersionedDesignMap builds these.
+     * @param children the outgoing adjacency of every node
+     * @param parents the incoming adjacency of every node
+     * @param version the number of versions published before this one
+     * @spec.requires the arguments satisfy the representation invariant
+     */
+    GraphVersion(Map<T, Map<T, Set<E>>> children, Map<T, Set<T>> parents, long version) {
+        this.children = children;
+        this.parents = parents;
+        this.version = version;
+        checkRep();
+    }
+
+    /**
+     * @return the number of versions published before this one
+     */
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public boolean contains(T node) {
+        return children.containsKey(node);
+    }
+
+    @Override
+    public List<T> listNodes() {
+        return new ArrayList<>(children.keySet());
+    }
+
+    @Override
+    public List<T> listChildren(T source)
+            throws IllegalArgumentException, NoSuchElementException {
+        return new ArrayList<>(outgoing(source).keySet());
+    }
+
+    @Override
+    public List<T> listParents(T dest)
+            throws IllegalArgumentException, NoSuchElementException {
+        if (dest == null) { throw new IllegalArgumentException("Null node received."); }
+        Set<T> in = parents.get(dest);
+        if (in == null) { throw new NoSuchElementException("Node does not exist."); }
+        return new ArrayList<>(in);
+    }
+
+    @Override
+    public List<E> getLabels(T src, T dst) {
+        Map<T, Set<E>> out = children.get(src);
+        Set<E> labels = out == null ? null : out.get(dst);
+        return labels == null ? new ArrayList<>() : new ArrayList<>(labels);
+    }
+
+    @Override
+    public void forEachEdge(T source, BiConsumer<? super T, ? super E> action)
+            throws IllegalArgumentException, NoSuchElementException {
+        if (action == null) { throw new IllegalArgumentException("Null action received."); }
+        for (Map.Entry<T, Set<E>> child: outgoing(source).entrySet()) {
+            for (E label: child.getValue()) {
+                action.accept(child.getKey(), label);
+            }
+        }
+    }
+
+    /**
+     * Freezes this version into a compressed sparse row snapshot
+     * @param weigher gives the cost of each edge label
+     * @throws IllegalArgumentException if weigher is null, or gives a cost that is
+     *         negative or not finite
+     * @return a CsrGraph with the same nodes and edges as this
+     * @spec.requires weigher != null
+     */
+    public CsrGraph<T> toCsr(EdgeWeigher<? super E> weigher) throws IllegalArgumentException {
+        return CsrGraph.of(children, weigher);
+    }
+
+    /**
+     * @return the outgoing adjacency of every node, for building the next version
+     * and measuring its footprint
+     */
+    Map<T, Map<T, Set<E>>> children() {
+        return children;
+    }
+
+    /**
+     * @return the incoming adjacency of every node, for building the next version
+     * and measuring its footprint
+     */
+    Map<T, Set<T>> parents() {
+        return parents;
+    }
+
+    // Gives the outgoing adjacency of source, checking that it exists.
+    private Map<T, Set<E>> outgoing(T source) {
+        if (source == null) { throw new IllegalArgumentException("Null node received."); }
+        Map<T, Set<E>> out = children.get(source);
+        if (out == null) { throw new NoSuchElementException("Node does not exist."); }
+        return out;
+    }
+}
@@ -0,0 +1,66 @@
+package graph;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * GraphView is the read-only contract shared by every graph of nodes T and edge
+ *  labels E in this package. Searches take a GraphView so they can run on any of
+ *  the graph representations without knowing how it is stored.
+ */
+public interface GraphView<T, E> {
+
+    /**
+     * Checks if this graph contains node
+     * @param node the node to be checked in this
+     * @return a boolean that is true if this contains node and false otherwise
+     */
+    boolean contains(T node);
+
+    /**
+     * Lists all the nodes in this
+     * @return List of all nodes in this graph
+     */
+    List<T> listNodes();
+
+    /**
+     * Lists all the nodes that can be directly reached from given source node
+     * @param source the source node
+     * @throws IllegalArgumentException if source is null
+     * @throws NoSuchElementException if !contains(source)
+     * @return A list of nodes that are direct destinations from source
+     * @spec.requires source != null and contains(source)
+     */
+    List<T> listChildren(T source) throws IllegalArgumentException, NoSuchElementException;
+
+    /**
+     * Lists all the nodes that can directly reach given destination node
+     * @param dest the destination node we want to find the parents of
+     * @throws IllegalArgumentException if dest is null
+     * @throws NoSuchElementException if !contains(dest)
+     * @return List of all the nodes that can directly reach dest
+     * @spec.requires dest != null and contains(dest)
+     */
+    List<T> listParents(T dest) throws IllegalArgumentException, NoSuchElementException;
+
+    /**
+     * Lists all the edges from given source node to given destination node
+     * @param src the source node of the edges
+     * @param dst the destination node of the edges
+     * @return list of all edges from src to dst
+     */
+    List<E> getLabels(T src, T dst);
+
+    /**
+     * Calls action once for every edge leaving the given source node, passing the
+     *  destination and the label of the edge. action must not modify this graph.
+     * @param source the source node
+     * @param action the callback to run for each outgoing edge
+     * @throws IllegalArgumentException if source or action is null
+     * @throws NoSuchElementException if !contains(source)
+     * @spec.requires source != null, action != null, and contains(source)
+     */
+    void forEachEdge(T source, BiConsumer<? super T, ? super E> action)
+            throws IllegalArgumentException, NoSuchElementException;
+}
@@ -0,0 +1,304 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * IndexedHeap represents a mutable min-priority queue of dense int ids, such as the
+ *  ids of a CsrGraph, each with a primitive double priority. Each id is in the queue
+ *  at most once, and lowering the priority of an id already in the queue moves it in
+ *  place, so a search never fills the queue with stale duplicates. The heap is d-ary:
+ *  arity 2 is a binary heap, and larger arities make the heap shallower, which makes
+ *  decreaseKey cheaper and poll more expensive.
+ *
+ *  A heap can grow to hold more ids, for searches that number nodes as they reach them
+ *  and so do not know up front how many there will be.
+ *
+ *  The heap counts the operations made on it, so different queues can be compared
+ *  on the same searches.
+ *
+ *  Abstract Invariant:
+ *   Each id in [0, capacity()) is in the queue at most once.
+ */
+public final class IndexedHeap {
+
+    // Representation Invariant:
+    //  heap != null, position != null, priority != null, and
+    //  position.length == priority.length, and arity >= 2, and
+    //  0 <= size <= heap.length == position.length, and
+    //  position[heap[i]] == i for all 0 <= i < size, and
+    //  position[id] == -1 for every id not in heap[0..size), and
+    //  priority[heap[(i - 1) / arity]] <= priority[heap[i]] for all 0 < i < size
+    //
+    // Abstraction Function:
+    //  AF(this) = a queue holding the ids heap[0..size), where id has priority
+    //             priority[id], and heap[0] has the lowest priority
+
+    // heap slot -> id, in d-ary heap order
+    private int[] heap;
+
+    // id -> heap slot, or -1 if the id is not queued
+    private int[] position;
+
+    // id -> priority, meaningful only while the id is queued
+    private double[] priority;
+
+    // number of children of each heap slot
+    private final int arity;
+
+    // number of queued ids
+    private int size;
+
+    // operation counts since construction or the last resetCounts()
+    private long inserts;
+    private long decreases;
+    private long polls;
+
+    // Checks the representation invariant. Only the cheap checks run, since the
+    //  full check would walk the whole heap.
+    private void checkRep() {
+        assert arity >= 2: "Arity too small";
+        assert 0 <= size && size <= heap.length: "Bad size";
+        assert size == 0 || position[heap[0]] == 0: "Root out of place";
+    }
+
+    /**
+     * Constructs an empty binary heap for the ids 0, 1, ..., capacity - 1
+     * @param capacity the number of ids this heap can hold
+     * @throws IllegalArgumentException if capacity is negative
+     * @spec.effects this = an empty binary IndexedHeap
+     */
+    public IndexedHeap(int capacity) throws IllegalArgumentException {
+        this(capacity, 2);
+    }
+
+    /**
+     * Constructs an empty d-ary heap for the ids 0, 1, ..., capacity - 1
+     * @param capacity the number of ids this heap can hold
+     * @param arity the number of children of each heap node
+     * @throws IllegalArgumentException if capacity is negative, or arity is less than 2
+     * @spec.effects this = an empty IndexedHeap with the given arity
+     */
+    public IndexedHeap(int capacity, int arity) throws IllegalArgumentException {
+        if (capacity < 0) { throw new IllegalArgumentException("Negative capacity received."); }
+        if (arity < 2) { throw new IllegalArgumentException("Arity must be at least 2."); }
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.priority = new double[capacity];
+        this.arity = arity;
+        Arrays.fill(position, -1);
+        checkRep();
+    }
+
+    /**
+     * @return the number of ids this heap can hold
+     */
+    public int capacity() {
+        return position.length;
+    }
+
+    /**
+     * Makes room for the ids 0, 1, ..., capacity - 1, keeping every queued id and its
+     *  priority. Does nothing if this heap can already hold that many ids.
+     * @param capacity the number of ids this heap must be able to hold
+     * @spec.modifies this
+     * @spec.effects capacity() >= capacity, and the queue is unchanged
+     */
+    public void ensureCapacity(int capacity) {
+        int old = position.length;
+        if (capacity <= old) { return; }
+        heap = Arrays.copyOf(heap, capacity);
+        position = Arrays.copyOf(position, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        Arrays.fill(position, old, capacity, -1);
+        checkRep();
+    }
+
+    /**
+     * @return the number of children of each heap node
+     */
+    public int arity() {
+        return arity;
+    }
+
+    /**
+     * @return the number of ids in this queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true iff there are no ids in this queue
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if id is in this queue
+     * @param id the id to be checked
+     * @return true iff id is in [0, capacity()) and is queued
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < position.length && position[id] >= 0;
+    }
+
+    /**
+     * Adds id to this queue, or lowers its priority if it is already queued with a
+     *  higher one
+     * @param id the id to queue
+     * @param newPriority the priority of id
+     * @throws IndexOutOfBoundsException if id is not in [0, capacity())
+     * @return true iff id was added or its priority was lowered
+     * @spec.requires newPriority is not NaN
+     * @spec.modifies this
+     * @spec.effects id is queued with the lower of newPriority and its old priority
+     */
+    public boolean offer(int id, double newPriority) throws IndexOutOfBoundsException {
+        int slot = position[id];
+        if (slot < 0) {
+            inserts++;
+            slot = size++;
+            heap[slot] = id;
+            position[id] = slot;
+            priority[id] = newPriority;
+        } else if (newPriority < priority[id]) {
+            decreases++;
+            priority[id] = newPriority;
+        } else {
+            return false;
+        }
+        siftUp(slot);
+        checkRep();
+        return true;
+    }
+
+    /**
+     * Gives the priority of a queued id
+     * @param id the queued id
+     * @throws NoSuchElementException if id is not queued
+     * @return the priority of id
+     */
+    public double priorityOf(int id) throws NoSuchElementException {
+        if (!contains(id)) { throw new NoSuchElementException("Id is not queued."); }
+        return priority[id];
+    }
+
+    /**
+     * @throws NoSuchElementException if this queue is empty
+     * @return the lowest priority in this queue
+     */
+    public double peekPriority() throws NoSuchElementException {
+        if (size == 0) { throw new NoSuchElementException("Heap is empty."); }
+        return priority[heap[0]];
+    }
+
+    /**
+     * Removes the id with the lowest priority
+     * @throws NoSuchElementException if this queue is empty
+     * @return the id that had the lowest priority, breaking ties arbitrarily
+     * @spec.modifies this
+     * @spec.effects the returned id is no longer queued
+     */
+    public int poll() throws NoSuchElementException {
+        if (size == 0) { throw new NoSuchElementException("Heap is empty."); }
+        polls++;
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        checkRep();
+        return min;
+    }
+
+    /**
+     * Removes every id, in time proportional to the number of queued ids
+     * @spec.modifies this
+     * @spec.effects this = an empty queue with the same capacity and arity
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) { position[heap[i]] = -1; }
+        size = 0;
+        checkRep();
+    }
+
+    /**
+     * @return the number of ids added by offer since the counts were last reset
+     */
+    public long inserts() {
+        return inserts;
+    }
+
+    /**
+     * @return the number of priorities lowered by offer since the counts were last reset
+     */
+    public long decreases() {
+        return decreases;
+    }
+
+    /**
+     * @return the number of ids removed by poll since the counts were last reset
+     */
+    public long polls() {
+        return polls;
+    }
+
+    /**
+     * Sets every operation count back to zero
+     * @spec.modifies this
+     */
+    public void resetCounts() {
+        inserts = 0;
+        decreases = 0;
+        polls = 0;
+    }
+
+    // Moves the id in slot up until its parent has no higher priority.
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        double p = priority[id];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / arity;
+            int parent = heap[parentSlot];
+            if (priority[parent] <= p) { break; }
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+
+    // Moves the id in slot down until none of its children has a lower priority.
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        double p = priority[id];
+        while (true) {
+            int first = slot * arity + 1;
+            if (first >= size) { break; }
+            int end = Math.min(first + arity, size);
+            int best = first;
+            double bestPriority = priority[heap[first]];
+            for (int child = first + 1; child < end; child++) {
+                double childPriority = priority[heap[child]];
+                if (childPriority < bestPriority) {
+                    best = child;
+                    bestPriority = childPriority;
+                }
+            }
+            if (bestPriority >= p) { break; }
+            int moved = heap[best];
+            heap[slot] = moved;
+            position[moved] = slot;
+            slot = best;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+}
@@ -0,0 +1,175 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * NodeIndex represents a mutable interning table that gives each distinct node a
+ *  dense int id, starting at 0 and counting up in the order the nodes were first
+ *  added. It is an open-addressing hash table over primitive arrays, so looking up
+ *  an id never boxes an Integer or allocates a map entry.
+ *
+ *  Abstract Invariant:
+ *   Each node has exactly one id, and ids are exactly 0, 1, ..., size() - 1.
+ */
+public final class NodeIndex<T> {
+
+    // Representation Invariant:
+    //  nodes != null, hashes != null, slots != null, and
+    //  0 <= size <= nodes.length == hashes.length, and
+    //  slots.length is a power of two and slots.length >= 2 * size, and
+    //  nodes[i] != null and hashes[i] == mix(nodes[i].hashCode()) for all 0 <= i < size, and
+    //  for each 0 <= i < size, slots[j] == i + 1 for exactly one j, which is reached from
+    //      hashes[i] & (slots.length - 1) by linear probing without passing an empty slot, and
+    //  every other slot is 0
+    //
+    // Abstraction Function:
+    //  AF(this) = a table such that
+    //   the node with id i = nodes[i] for 0 <= i < size, and
+    //   the id of a node x = the i such that nodes[i].equals(x), if there is one.
+
+    // id -> node
+    private Object[] nodes;
+
+    // id -> mixed hash code of the node, so rehashing never calls hashCode again
+    private int[] hashes;
+
+    // hash slot -> id + 1, or 0 if the slot is empty
+    private int[] slots;
+
+    // number of ids handed out
+    private int size;
+
+    // Checks the representation invariant. Only the cheap checks run, since the
+    //  full check would walk the whole table.
+    private void checkRep() {
+        assert size <= nodes.length: "Size past capacity";
+        assert Integer.bitCount(slots.length) == 1: "Table length is not a power of two";
+        assert slots.length >= 2 * size: "Table too full";
+    }
+
+    /**
+     * Constructs an empty index
+     * @spec.effects this = a new empty NodeIndex
+     */
+    public NodeIndex() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty index sized to hold expectedSize nodes without growing
+     * @param expectedSize the number of nodes expected to be added
+     * @throws IllegalArgumentException if expectedSize is negative
+     * @spec.effects this = a new empty NodeIndex
+     */
+    public NodeIndex(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0) { throw new IllegalArgumentException("Negative size received."); }
+        int capacity = Math.max(expectedSize, 4);
+        this.nodes = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.slots = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+        checkRep();
+    }
+
+    /**
+     * @return the number of nodes in this index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gives node an id, if it does not already have one
+     * @param node the node to intern
+     * @throws IllegalArgumentException if node is null
+     * @return the id of node
+     * @spec.requires node != null
+     * @spec.modifies this
+     * @spec.effects node has an id in this
+     */
+    public int intern(T node) throws IllegalArgumentException {
+        if (node == null) { throw new IllegalArgumentException("Null node received."); }
+        int hash = mix(node.hashCode());
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && nodes[id].equals(node)) { return id; }
+            slot = (slot + 1) & mask;
+        }
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        nodes[id] = node;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        if (slots.length < 2 * size) { rehash(); }
+        checkRep();
+        return id;
+    }
+
+    /**
+     * Looks up the id of a node
+     * @param node the node to look up
+     * @return the id of node, or -1 if node is null or not in this index
+     */
+    public int idOf(T node) {
+        if (node == null) { return -1; }
+        int hash = mix(node.hashCode());
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && nodes[id].equals(node)) { return id; }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if this index contains node
+     * @param node the node to be checked in this
+     * @return a boolean that is true if this contains node and false otherwise
+     */
+    public boolean contains(T node) {
+        return idOf(node) >= 0;
+    }
+
+    /**
+     * Looks up the node with a given id
+     * @param id the id of the node
+     * @throws NoSuchElementException if id is not in [0, size())
+     * @return the node whose id is id
+     */
+    @SuppressWarnings("unchecked")
+    public T node(int id) throws NoSuchElementException {
+        if (id < 0 || id >= size) { throw new NoSuchElementException("Node does not exist."); }
+        return (T) nodes[id];
+    }
+
+    /**
+     * @return the estimated bytes of this index's arrays, not counting the nodes
+     */
+    long estimatedBytes() {
+        return GraphFootprint.referenceArray(nodes.length) + GraphFootprint.intArray(hashes.length)
+                + GraphFootprint.intArray(slots.length);
+    }
+
+    // Doubles the slot table and re-inserts every id using the cached hashes.
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) { slot = (slot + 1) & mask; }
+            slots[slot] = id + 1;
+        }
+    }
+
+    // Spreads the bits of a hash code, since linear probing only looks at the low bits
+    //  and hash codes such as Point's differ mostly in their high bits.
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,206 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * OffHeapGraph represents an immutable, weighted graph whose topology and weights
+ *  live in direct memory outside the Java heap, so the garbage collector never has
+ *  to scan or copy them however large the graph gets. Only the node objects
+ *  themselves, and the index from node to id, stay on the heap.
+ *
+ *  The layout is the same compressed sparse row form as CsrGraph, plus the reverse
+ *  offsets and sources so listParents does not have to scan. Each edge has exactly
+ *  one Double label, its weight. Since every array is a single direct buffer, a graph
+ *  may hold at most Integer.MAX_VALUE / 8 edges.
+ *
+ *  Abstract Invariant:
+ *   Each node has exactly one id, and every edge weight is finite and non-negative.
+ */
+public final class OffHeapGraph<T> implements GraphView<T, Double> {
+
+    // Representation Invariant:
+    //  nodes != null, and every buffer != null and is a direct buffer, and
+    //  offsets and reverseOffsets have nodes.size() + 1 entries, and
+    //  targets, weights, and sources have offsets.get(nodes.size()) entries, and
+    //  the buffers hold the same graph as the CsrGraph this was built from, and
+    //      reverseOffsets and sources hold its transpose
+    //
+    // Abstraction Function:
+    //  AF(this) = a directed weighted graph such that
+    //   node i = nodes.node(i), and
+    //   there is an edge from node u to node targets.get(e) with label weights.get(e)
+    //      for each offsets.get(u) <= e < offsets.get(u + 1).
+
+    // node <-> id, the only part of the graph on the heap
+    private final NodeIndex<T> nodes;
+
+    // start of each node's outgoing edge range
+    private final IntBuffer offsets;
+
+    // destination id of each edge
+    private final IntBuffer targets;
+
+    // cost of each edge
+    private final DoubleBuffer weights;
+
+    // start of each node's incoming edge range
+    private final IntBuffer reverseOffsets;
+
+    // source id of each incoming edge
+    private final IntBuffer sources;
+
+    // Checks the cheap parts of the representation invariant.
+    private void checkRep() {
+        assert offsets.capacity() == nodes.size() + 1: "Bad offsets length";
+        assert reverseOffsets.capacity() == nodes.size() + 1: "Bad reverse offsets length";
+        assert targets.capacity() == weights.capacity(): "Targets and weights differ in length";
+        assert sources.capacity() == targets.capacity(): "Sources and targets differ in length";
+        assert offsets.isDirect() && weights.isDirect(): "Buffer on the heap";
+    }
+
+    /**
+     * Constructs an off-heap copy of a graph
+     * @param graph the graph to copy
+     * @throws IllegalArgumentException if graph is null, or has too many edges to fit
+     *         in one direct buffer
+     * @spec.effects this = a graph with the same nodes, ids, and edges as graph
+     */
+    public OffHeapGraph(CsrGraph<T> graph) throws IllegalArgumentException {
+        if (graph == null) { throw new IllegalArgumentException("Null graph received."); }
+        if (graph.edgeCount() > Integer.MAX_VALUE / Double.BYTES) {
+            throw new IllegalArgumentException("Graph too large for one direct buffer.");
+        }
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        this.nodes = new NodeIndex<>(n);
+        this.offsets = allocate(n + 1).asIntBuffer();
+        this.targets = allocate(m).asIntBuffer();
+        this.weights = ByteBuffer.allocateDirect(m * Double.BYTES)
+                .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        for (int u = 0; u < n; u++) {
+            nodes.intern(graph.node(u));
+            offsets.put(u, graph.firstEdge(u));
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                targets.put(e, graph.target(e));
+                weights.put(e, graph.weight(e));
+            }
+        }
+        offsets.put(n, m);
+
+        CsrGraph<T> reverse = graph.transpose();
+        this.reverseOffsets = allocate(n + 1).asIntBuffer();
+        this.sources = allocate(m).asIntBuffer();
+        for (int v = 0; v < n; v++) {
+            reverseOffsets.put(v, reverse.firstEdge(v));
+            for (int e = reverse.firstEdge(v); e < reverse.endEdge(v); e++) {
+                sources.put(e, reverse.target(e));
+            }
+        }
+        reverseOffsets.put(n, m);
+        checkRep();
+    }
+
+    /**
+     * @return the number of nodes in this graph
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return targets.capacity();
+    }
+
+    /**
+     * @return the index from node to id, for measuring this graph's footprint
+     */
+    NodeIndex<T> nodeIndex() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of bytes of direct memory this graph holds
+     */
+    public long offHeapBytes() {
+        return (long) Integer.BYTES * (offsets.capacity() + targets.capacity()
+                + reverseOffsets.capacity() + sources.capacity())
+                + (long) Double.BYTES * weights.capacity();
+    }
+
+    @Override
+    public boolean contains(T node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public List<T> listNodes() {
+        List<T> output = new ArrayList<>(nodes.size());
+        for (int u = 0; u < nodes.size(); u++) { output.add(nodes.node(u)); }
+        return output;
+    }
+
+    @Override
+    public List<T> listChildren(T source)
+            throws IllegalArgumentException, NoSuchElementException {
+        int u = idOf(source);
+        List<T> output = new ArrayList<>();
+        for (int e = offsets.get(u); e < offsets.get(u + 1); e++) {
+            output.add(nodes.node(targets.get(e)));
+        }
+        return output;
+    }
+
+    @Override
+    public List<T> listParents(T dest)
+            throws IllegalArgumentException, NoSuchElementException {
+        int v = idOf(dest);
+        List<T> output = new ArrayList<>();
+        for (int e = reverseOffsets.get(v); e < reverseOffsets.get(v + 1); e++) {
+            output.add(nodes.node(sources.get(e)));
+        }
+        return output;
+    }
+
+    @Override
+    public List<Double> getLabels(T src, T dst) {
+        List<Double> output = new ArrayList<>();
+        int u = nodes.idOf(src);
+        int v = nodes.idOf(dst);
+        if (u < 0 || v < 0) { return output; }
+        for (int e = offsets.get(u); e < offsets.get(u + 1); e++) {
+            if (targets.get(e) == v) { output.add(weights.get(e)); }
+        }
+        return output;
+    }
+
+    @Override
+    public void forEachEdge(T source, BiConsumer<? super T, ? super Double> action)
+            throws IllegalArgumentException, NoSuchElementException {
+        if (action == null) { throw new IllegalArgumentException("Null action received."); }
+        int u = idOf(source);
+        for (int e = offsets.get(u); e < offsets.get(u + 1); e++) {
+            action.accept(nodes.node(targets.get(e)), weights.get(e));
+        }
+    }
+
+    // Gives the id of node, checking that it exists.
+    private int idOf(T node) throws IllegalArgumentException, NoSuchElementException {
+        if (node == null) { throw new IllegalArgumentException("Null node received."); }
+        int id = nodes.idOf(node);
+        if (id < 0) { throw new NoSuchElementException("Node does not exist."); }
+        return id;
+    }
+
+    // Allocates a direct buffer for count ints, in native byte order.
+    private static ByteBuffer allocate(int count) {
+        return ByteBuffer.allocateDirect(count * Integer.BYTES).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,247 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * VersionedDesignMap represents a map of nodes and edges that changes by publishing
+ *  whole new versions. Readers call snapshot() to pin the current GraphVersion and can
+ *  run a complete search on it without locks, seeing none of the writes published
+ *  while they run. Writers call update() with a batch of edits. The batch is applied
+ *  copy-on-write: the new version copies only the adjacency of the nodes the batch
+ *  touches and shares every other node's adjacency with the version before it. The
+ *  new version is then published atomically. Writers are serialized with each other,
+ *  and never block readers.
+ *
+ *  Abstract Invariant:
+ *   Each Node and each edge needs to be unique.
+ */
+public class VersionedDesignMap<T, E> {
+
+    // Representation Invariant:
+    //  current != null, and current.get() != null, and
+    //  the version number of current.get() grows by one with every published update
+    //
+    // Abstraction Function:
+    //  AF(this) = the map current.get(), along with every earlier version that some
+    //             reader may still hold
+    private volatile GraphVersion<T, E> current;
+
+    // Checks the representation invariant.
+    private void checkRep() {
+        assert current != null: "No current version";
+    }
+
+    /**
+     * Constructs a VersionedDesignMap whose current version is empty
+     * @spec.effects this = a new VersionedDesignMap with an empty version 0
+     */
+    public VersionedDesignMap() {
+        this.current = new GraphVersion<>(new HashMap<>(), new HashMap<>(), 0);
+        checkRep();
+    }
+
+    /**
+     * Pins the current version. The returned version never changes, so a search
+     *  can run on it from start to finish while writers keep publishing.
+     * @return the most recently published version
+     */
+    public GraphVersion<T, E> snapshot() {
+        return current;
+    }
+
+    /**
+     * Applies a batch of edits to the current version and publishes the result as the
+     *  new current version. Readers see either every edit of the batch or none of them.
+     *  If edits throws, nothing is published.
+     * @param edits the changes to make, applied to an Editor of the current version
+     * @throws IllegalArgumentException if edits is null, or any edit it makes is illegal
+     * @return the version that was published
+     * @spec.requires edits != null and edits does not keep the Editor after returning
+     * @spec.modifies this
+     * @spec.effects the current version of this = the old current version with edits applied
+     */
+    public synchronized GraphVersion<T, E> update(Consumer<Editor<T, E>> edits)
+            throws IllegalArgumentException {
+        if (edits == null) { throw new IllegalArgumentException("Null edits received."); }
+        Editor<T, E> editor = new Editor<>(current);
+        edits.accept(editor);
+        current = editor.build();
+        checkRep();
+        return current;
+    }
+
+    /**
+     * Editor collects a batch of changes to one version of a VersionedDesignMap.
+     *  Its mutators have the same specifications as the ones on DesignMap. It copies
+     *  the adjacency of a node the first time the batch changes it, and leaves the
+     *  version it started from untouched.
+     */
+    public static final class Editor<T, E> {
+
+        // Representation Invariant:
+        //  children and parents are private copies of the base version's outer maps, and
+        //  for each node in copiedChildren, children.get(node) and its label sets are
+        //      private copies, and every other inner map is shared with the base version, and
+        //  for each node in copiedParents, parents.get(node) is a private copy, and every
+        //      other parent set is shared with the base version
+        //
+        // Abstraction Function:
+        //  AF(this) = the base version with every edit made so far applied
+
+        // outgoing adjacency of the version being built
+        private final Map<T, Map<T, Set<E>>> children;
+
+        // incoming adjacency of the version being built
+        private final Map<T, Set<T>> parents;
+
+        // nodes whose outgoing adjacency has already been copied
+        private final Set<T> copiedChildren;
+
+        // nodes whose incoming adjacency has already been copied
+        private final Set<T> copiedParents;
+
+        // version number of the version being built
+        private final long version;
+
+        // set once build() has been called, after which the editor may not be used
+        private boolean built;
+
+        /**
+         * Constructs an editor whose edits start from base
+         * @param base the version to start from
+         */
+        private Editor(GraphVersion<T, E> base) {
+            this.children = new HashMap<>(base.children());
+            this.parents = new HashMap<>(base.parents());
+            this.copiedChildren = new HashSet<>();
+            this.copiedParents = new HashSet<>();
+            this.version = base.version() + 1;
+        }
+
+        /**
+         * Adds a node to this version if it does not already exist
+         * @param newNode the node to be added
+         * @throws IllegalArgumentException if newNode is null
+         * @spec.requires newNode != null
+         * @spec.modifies this
+         * @spec.effects this with node newNode in it
+         */
+        public void addNode(T newNode) throws IllegalArgumentException {
+            checkOpen();
+            if (newNode == null) {
+                throw new IllegalArgumentException("Tried to add a null node.");
+            }
+            if (!children.containsKey(newNode)) {
+                children.put(newNode, new HashMap<>());
+                parents.put(newNode, new HashSet<>());
+                copiedChildren.add(newNode);
+                copiedParents.add(newNode);
+            }
+        }
+
+        /**
+         * Adds an edge from a source node to a destination node, adding either node
+         *  first if it does not already exist
+         * @param src the source node of the edge
+         * @param dst the destination node of this edge
+         * @param label the edge to be added from src to dst
+         * @throws IllegalArgumentException if label is null, src is null, dst is null,
+         *         or the same label already exists from src to dst
+         * @spec.requires src, dst, and label are not null, and edges from src to dst
+         *                do not already contain label.
+         * @spec.modifies this
+         * @spec.effects edges from src to dst in this now contain label
+         */
+        public void addEdge(T src, T dst, E label) throws IllegalArgumentException {
+            checkOpen();
+            if (src == null || dst == null || label == null) {
+                throw new IllegalArgumentException("Null node/label received.");
+            }
+            addNode(src);
+            addNode(dst);
+            Set<E> labels = writableChildren(src).computeIfAbsent(dst, k -> new HashSet<>());
+            if (!labels.add(label)) {
+                throw new IllegalArgumentException("Duplicate edges.");
+            }
+            writableParents(dst).add(src);
+        }
+
+        /**
+         * Removes a node (if exists) and all edges from and to this node
+         * @param node the node to be removed
+         * @spec.modifies this
+         * @spec.effects node and all its incoming and outgoing edges are removed from this
+         */
+        public void removeNode(T node) {
+            checkOpen();
+            if (node == null || !children.containsKey(node)) { return; }
+            for (T src: parents.get(node)) {
+                if (!src.equals(node)) { writableChildren(src).remove(node); }
+            }
+            for (T dst: children.get(node).keySet()) {
+                if (!dst.equals(node)) { writableParents(dst).remove(node); }
+            }
+            children.remove(node);
+            parents.remove(node);
+        }
+
+        /**
+         * Removes an edge (if exists) from source node to destination node
+         * @param src the source node of the edge
+         * @param dst the destination node of the edge
+         * @param label the label of the edge
+         * @spec.modifies this
+         * @spec.effects edge named label from source to destination is removed from this
+         */
+        public void removeEdge(T src, T dst, E label) {
+            checkOpen();
+            Map<T, Set<E>> out = children.get(src);
+            if (out == null || out.get(dst) == null || !out.get(dst).contains(label)) {
+                return;
+            }
+            Set<E> labels = writableChildren(src).get(dst);
+            labels.remove(label);
+            if (labels.isEmpty()) {
+                // get rid of empty set with no edges
+                writableChildren(src).remove(dst);
+                writableParents(dst).remove(src);
+            }
+        }
+
+        /**
+         * Finishes the batch
+         * @return the version with every edit applied
+         */
+        private GraphVersion<T, E> build() {
+            checkOpen();
+            built = true;
+            return new GraphVersion<>(children, parents, version);
+        }
+
+        // Gives a private copy of node's outgoing adjacency that may be modified.
+        private Map<T, Set<E>> writableChildren(T node) {
+            if (copiedChildren.add(node)) {
+                Map<T, Set<E>> copy = new HashMap<>();
+                for (Map.Entry<T, Set<E>> child: children.get(node).entrySet()) {
+                    copy.put(child.getKey(), new HashSet<>(child.getValue()));
+                }
+                children.put(node, copy);
+            }
+            return children.get(node);
+        }
+
+        // Gives a private copy of node's incoming adjacency that may be modified.
+        private Set<T> writableParents(T node) {
+            if (copiedParents.add(node)) {
+                parents.put(node, new HashSet<>(parents.get(node)));
+            }
+            return parents.get(node);
+        }
+
+        // Checks that the editor has not been published yet.
+        private void checkOpen() {
+            if (built) { throw new IllegalStateException("Editor already published."); }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentDesignMapTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(30); // 30 seconds max per method tested
+
+    String A = "A";
+    String B = "B";
+    String C = "C";
+
+    /** Tests the single-threaded behavior matches DesignMap. */
+    @Test
+    public void testSingleThreaded() {
+        ConcurrentDesignMap<String, Double> map1 = new ConcurrentDesignMap<>();
+        map1.addEdge(A, B, 1.0);
+        map1.addEdge(A, B, 2.0);
+        map1.addEdge(B, C, 3.0);
+        assertTrue(map1.contains(A));
+        assertEquals(List.of(B), map1.listChildren(A));
+        assertEquals(List.of(A), map1.listParents(B));
+        assertEquals(2, map1.getLabels(A, B).size());
+        try {
+            map1.addEdge(A, B, 1.0);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+
+        map1.removeEdge(A, B, 1.0);
+        map1.removeEdge(A, B, 2.0);
+        assertEquals(new ArrayList<String>(), map1.listParents(B));
+        map1.removeNode(C);
+        assertEquals(new ArrayList<String>(), map1.listChildren(B));
+        assertFalse(map1.contains(C));
+        assertEquals(2, map1.toCsr(Double::doubleValue).nodeCount());
+    }
+
+    /**
+     * Stress test: writers keep adding and removing edges and nodes while readers walk
+     * the adjacency. Readers must never hit a half-written adjacency, and the parent
+     * index must agree with the children once everything stops.
+     */
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception {
+        ConcurrentDesignMap<Integer, Double> map1 = new ConcurrentDesignMap<>();
+        int nodes = 200;
+        for (int i = 0; i < nodes; i++) { map1.addEdge(i, (i + 1) % nodes, 1.0); }
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicBoolean stop = new AtomicBoolean(false);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            if (t % 2 == 0) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20000; i++) {
+                        int src = random.nextInt(nodes);
+                        int dst = random.nextInt(nodes);
+                        double label = seed * 100000.0 + i;
+                        map1.addEdge(src, dst, label);
+                        if (random.nextBoolean()) { map1.removeEdge(src, dst, label); }
+                        if (i % 1000 == 0) { map1.removeNode(random.nextInt(nodes)); }
+                    }
+                }));
+            } else {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!stop.get()) {
+                        int src = random.nextInt(nodes);
+                        try {
+                            double[] total = {0};
+                            map1.forEachEdge(src, (child, label) -> total[0] += label);
+                            assertTrue(total[0] >= 0);
+                            map1.listParents(src);
+                        } catch (java.util.NoSuchElementException e) {
+                            // src was removed by a writer, which is fine
+                        }
+                    }
+                }));
+            }
+        }
+        for (int t = 0; t < threads; t += 2) { futures.get(t).get(); }
+        stop.set(true);
+        for (Future<?> future: futures) { future.get(); }
+        pool.shutdown();
+
+        for (Integer src: map1.listNodes()) {
+            for (Integer dst: map1.listChildren(src)) {
+                assertTrue(map1.listParents(dst).contains(src));
+            }
+            for (Integer parent: map1.listParents(src)) {
+                assertTrue(map1.listChildren(parent).contains(src));
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class CsrGraphTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    String A = "A";
+    String B = "B";
+    String C = "C";
+
+    /** Tests that a snapshot has the same nodes and edges as the map it came from. */
+    @Test
+    public void testToCsrMatchesMap() {
+        DesignMap<String, Double> map1 = new DesignMap<>();
+        map1.addEdge(A, B, 1.0);
+        map1.addEdge(A, C, 2.0);
+        map1.addEdge(B, C, 3.0);
+        CsrGraph<String> graph = map1.toCsr(Double::doubleValue);
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(3, graph.edgeCount());
+        assertTrue(graph.contains(A));
+        assertFalse(graph.contains("D"));
+        assertEquals(-1, graph.idOf("D"));
+
+        int a = graph.idOf(A);
+        assertEquals(A, graph.node(a));
+        assertEquals(2, graph.endEdge(a) - graph.firstEdge(a));
+        double total = 0;
+        for (int e = graph.firstEdge(a); e < graph.endEdge(a); e++) {
+            total += graph.weight(e);
+            assertTrue(graph.node(graph.target(e)).equals(B) || graph.node(graph.target(e)).equals(C));
+        }
+        assertEquals(3.0, total, 1e-9);
+        int c = graph.idOf(C);
+        assertEquals(0, graph.endEdge(c) - graph.firstEdge(c));
+    }
+
+    /** Tests that parallel labels collapse to the cheapest one and later edits are not seen. */
+    @Test
+    public void testToCsrKeepsCheapestLabelAndIsFrozen() {
+        DesignMap<String, Double> map1 = new DesignMap<>();
+        map1.addEdge(A, B, 5.0);
+        map1.addEdge(A, B, 2.0);
+        CsrGraph<String> graph = map1.toCsr(Double::doubleValue);
+        map1.addEdge(B, C, 1.0);
+
+        int a = graph.idOf(A);
+        assertEquals(1, graph.endEdge(a) - graph.firstEdge(a));
+        assertEquals(2.0, graph.weight(graph.firstEdge(a)), 1e-9);
+        assertEquals(2, graph.nodeCount());
+        assertFalse(graph.contains(C));
+    }
+
+    /** Tests that bad costs and bad ids are rejected. */
+    @Test
+    public void testToCsrThrowsExceptions() {
+        DesignMap<String, Double> map1 = new DesignMap<>();
+        map1.addEdge(A, B, -1.0);
+        try {
+            map1.toCsr(Double::doubleValue);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+        CsrGraph<String> graph = new DesignMap<String, Double>().toCsr(Double::doubleValue);
+        try {
+            graph.node(0);
+            fail("Expected NoSuchElementException not occurred.");
+        } catch (NoSuchElementException e) {
+            e.getStackTrace();
+        }
+    }
+
+    /** Tests that transpose keeps ids and reverses every edge. */
+    @Test
+    public void testTranspose() {
+        DesignMap<String, Double> map1 = new DesignMap<>();
+        map1.addEdge(A, B, 1.0);
+        map1.addEdge(A, C, 2.0);
+        map1.addEdge(B, C, 3.0);
+        CsrGraph<String> graph = map1.toCsr(Double::doubleValue);
+        CsrGraph<String> reverse = graph.transpose();
+
+        assertEquals(graph.nodeCount(), reverse.nodeCount());
+        assertEquals(graph.edgeCount(), reverse.edgeCount());
+        int a = reverse.idOf(A);
+        int c = reverse.idOf(C);
+        assertEquals(graph.idOf(C), c);
+        assertEquals(0, reverse.endEdge(a) - reverse.firstEdge(a));
+        assertEquals(2, reverse.endEdge(c) - reverse.firstEdge(c));
+        double total = 0;
+        for (int e = reverse.firstEdge(c); e < reverse.endEdge(c); e++) {
+            total += reverse.weight(e);
+        }
+        assertEquals(5.0, total, 1e-9);
+    }
+
+    /** Tests that the numeric weigher reads numbers directly and parses other labels. */
+    @Test
+    public void testNumericWeigher() {
+        assertEquals(2.5, EdgeWeigher.<Object>numeric().weigh(2.5), 1e-9);
+        assertEquals(3.0, EdgeWeigher.<Object>numeric().weigh(3), 1e-9);
+        DesignMap<String, String> map1 = new DesignMap<>();
+        map1.addEdge(A, B, "4.5");
+        CsrGraph<String> graph = map1.toCsr(EdgeWeigher.numeric());
+        assertEquals(4.5, graph.weight(graph.firstEdge(graph.idOf(A))), 1e-9);
+    }
+}
@@ -0,0 +1,76 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DesignMapBuilderTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    String A = "A";
+    String B = "B";
+    String C = "C";
+
+    /** Tests that a built map has every node and edge that was loaded. */
+    @Test
+    public void testBuild() {
+        DesignMapBuilder<String, String> builder = new DesignMapBuilder<>(3);
+        builder.addNode(C)
+               .addEdge(A, B, "e1")
+               .addEdges(List.of(new String[] {B, A, "e2"}, new String[] {A, B, "e3"}),
+                         row -> row[0], row -> row[1], row -> row[2]);
+        DesignMap<String, String> map1 = builder.build();
+
+        assertTrue(map1.contains(C));
+        assertEquals(List.of(B), map1.listChildren(A));
+        assertEquals(List.of(A), map1.listParents(B));
+        assertEquals(2, map1.getLabels(A, B).size());
+        assertEquals(List.of("e2"), map1.getLabels(B, A));
+        List<String> visited = new ArrayList<>();
+        map1.forEachEdge(A, (child, label) -> visited.add(child + label));
+        visited.sort(null);
+        assertEquals(List.of("Be1", "Be3"), visited);
+
+        // the built map keeps working as a normal DesignMap
+        map1.removeNode(B);
+        assertEquals(List.of(), map1.listChildren(A));
+        visited.clear();
+        map1.forEachEdge(A, (child, label) -> visited.add(child + label));
+        assertEquals(List.of(), visited);
+    }
+
+    /** Tests that duplicates, nulls, and reuse are rejected. */
+    @Test
+    public void testBuilderThrowsExceptions() {
+        DesignMapBuilder<String, String> builder = new DesignMapBuilder<>();
+        builder.addEdge(A, B, "e1");
+        try {
+            builder.addEdge(A, B, "e1");
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        } try {
+            builder.addEdge(A, null, "e1");
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+        builder.build();
+        try {
+            builder.addNode(C);
+            fail("Expected IllegalStateException not occurred.");
+        } catch (IllegalStateException e) {
+            e.getStackTrace();
+        } try {
+            builder.build();
+            fail("Expected IllegalStateException not occurred.");
+        } catch (IllegalStateException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -262,6 +262,91 @@ public class DesignMapTest<T> {
         assertTrue(nodeList.contains(C));
     }
 
+    /**
+     * Tests that removeNode drops incoming and outgoing edges, and that
+     * listParents stays in step with edge additions and removals
+     */
+    @Test
+    public void testRemoveNodeUpdatesParents() {
+        DesignMap<String, String> map1 = new DesignMap<>();
+        map1.addEdge(A, B, edge1);
+        map1.addEdge(B, C, edge1);
+        map1.addEdge(C, B, edge2);
+        map1.addEdge(B, B, edge2);
+
+        map1.removeNode(B);
+        assertFalse(map1.contains(B));
+        assertEquals(map1.listChildren(A), edgeListEmpty);
+        assertEquals(map1.listChildren(C), edgeListEmpty);
+        assertEquals(map1.listParents(C), edgeListEmpty);
+
+        // adding the node back does not bring old edges back
+        map1.addNode(B);
+        assertEquals(map1.listParents(B), edgeListEmpty);
+        assertEquals(map1.listChildren(B), edgeListEmpty);
+
+        // adding an existing node keeps its edges
+        map1.addEdge(A, C, edge1);
+        map1.addNode(A);
+        assertEquals(map1.listParents(C), List.of(A));
+        map1.removeEdge(A, C, edge1);
+        assertEquals(map1.listParents(C), edgeListEmpty);
+    }
+
+    /** Tests that forEachEdge visits every outgoing edge once and throws when needed. */
+    @Test
+    public void testForEachEdge() {
+        DesignMap<String, String> map1 = new DesignMap<>();
+        map1.addEdge(A, B, edge1);
+        map1.addEdge(A, B, edge2);
+        map1.addEdge(A, C, edge1);
+        map1.addEdge(B, A, edge1);
+
+        List<String> visited = new ArrayList<>();
+        map1.forEachEdge(A, (child, label) -> visited.add(child + label));
+        assertEquals(3, visited.size());
+        assertTrue(visited.contains(B + edge1));
+        assertTrue(visited.contains(B + edge2));
+        assertTrue(visited.contains(C + edge1));
 
+        visited.clear();
+        map1.forEachEdge(C, (child, label) -> visited.add(child + label));
+        assertEquals(visited, edgeListEmpty);
+        try {
+            map1.forEachEdge(N, (child, label) -> visited.add(child));
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        } try {
+            map1.forEachEdge("D", (child, label) -> visited.add(child));
+            fail("Expected NoSuchElementException not occurred.");
+        } catch (NoSuchElementException e) {
+            e.getStackTrace();
+        }
+    }
+
+    /** Tests that forEachEdge stops visiting edges once they or their ends are removed. */
+    @Test
+    public void testForEachEdgeAfterRemovals() {
+        DesignMap<String, String> map1 = new DesignMap<>();
+        map1.addEdge(A, B, edge1);
+        map1.addEdge(A, B, edge2);
+        map1.addEdge(A, C, edge1);
+        map1.addEdge(A, A, edge1);
+        map1.removeEdge(A, B, edge1);
+        map1.removeNode(C);
 
+        List<String> visited = new ArrayList<>();
+        map1.forEachEdge(A, (child, label) -> visited.add(child + label));
+        assertEquals(2, visited.size());
+        assertTrue(visited.contains(B + edge2));
+        assertTrue(visited.contains(A + edge1));
+
+        map1.removeNode(A);
+        map1.addEdge(B, A, edge2);
+        visited.clear();
+        map1.forEachEdge(A, (child, label) -> visited.add(child + label));
+        assertEquals(visited, edgeListEmpty);
+    }
 }
+
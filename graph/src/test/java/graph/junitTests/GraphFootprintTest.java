@@ -0,0 +1,128 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class GraphFootprintTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    // Builds a ring of n nodes with one weighted edge each way between neighbours
+    private DesignMap<Integer, Double> ring(int n) {
+        DesignMap<Integer, Double> map1 = new DesignMap<>();
+        for (int i = 0; i < n; i++) {
+            map1.addEdge(i, (i + 1) % n, 1.0 + i);
+            map1.addEdge((i + 1) % n, i, 1.0 + i);
+        }
+        return map1;
+    }
+
+    /** Tests that an empty map only counts its outer tables. */
+    @Test
+    public void testEmpty() {
+        GraphFootprint empty = GraphFootprint.of(new DesignMap<String, Double>());
+        assertEquals(0, empty.nodes());
+        assertEquals(0, empty.edges());
+        assertEquals(96, empty.totalBytes());
+        assertEquals(0.0, empty.bytesPerNode(), 0);
+        assertEquals(0.0, empty.bytesPerEdge(), 0);
+    }
+
+    /** Tests that every boxed weight is counted, and the parts add up to the total. */
+    @Test
+    public void testDesignMapBreakdown() {
+        GraphFootprint fp = GraphFootprint.of(ring(100));
+        assertEquals(100, fp.nodes());
+        assertEquals(200, fp.edges());
+        assertEquals(200 * 16, fp.boxedLabelBytes());
+        // one HashSet of labels per edge, and one HashSet of parents per node
+        assertEquals(300 * 16, fp.setWrapperBytes());
+        assertEquals(0, fp.arrayBytes());
+        assertEquals(fp.mapBytes() + fp.entryBytes() + fp.setWrapperBytes()
+                + fp.boxedLabelBytes(), fp.totalBytes());
+        assertEquals(fp.totalBytes() / 200.0, fp.bytesPerEdge(), 1e-9);
+    }
+
+    /** Tests that tables are estimated from the capacity their map was made with. */
+    @Test
+    public void testBuilderCapacities() {
+        DesignMap<String, String> map1 = new DesignMap<>();
+        map1.addEdge("A", "B", "e1");
+        DesignMap<String, String> built = new DesignMapBuilder<String, String>(3)
+                .addEdge("A", "B", "e1").build();
+        DesignMap<String, String> large = new DesignMapBuilder<String, String>(1000)
+                .addEdge("A", "B", "e1").build();
+        // two node tables of 16 slots, one child table, one label set, one parent set
+        //  of 16 slots, and two empty tables
+        assertEquals(5 * (48 + 80) + 2 * 48, GraphFootprint.of(map1).mapBytes());
+        // node tables of 8 slots, child and parent tables of 4, and a label set of 2
+        assertEquals(2 * (48 + 48) + 2 * (48 + 32) + (48 + 24) + 2 * 48,
+                GraphFootprint.of(built).mapBytes());
+        // node tables of 2048 slots
+        assertEquals(2 * (48 + 8208) + 2 * (48 + 32) + (48 + 24) + 2 * 48,
+                GraphFootprint.of(large).mapBytes());
+        assertEquals(GraphFootprint.of(map1).entryBytes(), GraphFootprint.of(built).entryBytes());
+    }
+
+    /** Tests that the frozen and off-heap forms are smaller than the map they came from. */
+    @Test
+    public void testCompareRepresentations() {
+        DesignMap<Integer, Double> map1 = ring(1000);
+        CsrGraph<Integer> csr = map1.toCsr(Double::doubleValue);
+        OffHeapGraph<Integer> offHeap = new OffHeapGraph<>(csr);
+        GraphFootprint design = GraphFootprint.of(map1);
+        GraphFootprint frozen = GraphFootprint.of(csr);
+        GraphFootprint direct = GraphFootprint.of(offHeap);
+        assertEquals(2000, frozen.edges());
+        assertEquals(0, frozen.mapBytes());
+        assertEquals(offHeap.offHeapBytes(), direct.offHeapBytes());
+        assertTrue(frozen.totalBytes() * 5 < design.totalBytes());
+        assertTrue(direct.arrayBytes() < frozen.arrayBytes());
+    }
+
+    /** Tests that a version is measured like the DesignMap with the same edges. */
+    @Test
+    public void testVersionMatchesDesignMap() {
+        VersionedDesignMap<String, Double> versioned = new VersionedDesignMap<>();
+        versioned.update(e -> {
+            e.addEdge("A", "B", 1.0);
+            e.addEdge("B", "C", 2.0);
+        });
+        DesignMap<String, Double> map1 = new DesignMap<>();
+        map1.addEdge("A", "B", 1.0);
+        map1.addEdge("B", "C", 2.0);
+        assertEquals(GraphFootprint.of(map1).totalBytes(),
+                GraphFootprint.of(versioned.snapshot()).totalBytes());
+    }
+
+    /** Tests that the summary reads the same whatever the default locale. */
+    @Test
+    public void testToStringIgnoresLocale() {
+        Locale saved = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            DesignMap<String, String> map1 = new DesignMap<>();
+            map1.addEdge("A", "B", "e1");
+            map1.addEdge("A", "C", "e1");
+            map1.addEdge("B", "C", "e1");
+            assertTrue(GraphFootprint.of(map1).toString().matches(".*\\(\\d+\\.\\d per node.*"));
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    /** Tests that a null graph is rejected. */
+    @Test
+    public void testNull() {
+        try {
+            GraphFootprint.of((DesignMap<String, Double>) null);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
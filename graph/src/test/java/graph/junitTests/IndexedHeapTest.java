@@ -0,0 +1,121 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IndexedHeapTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /** Tests that ids come out in priority order for several arities. */
+    @Test
+    public void testPollsInOrder() {
+        for (int arity = 2; arity <= 5; arity++) {
+            Random rnd = new Random(arity);
+            IndexedHeap heap = new IndexedHeap(1000, arity);
+            double[] priorities = new double[1000];
+            for (int id = 0; id < 1000; id++) {
+                priorities[id] = rnd.nextDouble();
+                assertTrue(heap.offer(id, priorities[id]));
+            }
+            Arrays.sort(priorities);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(priorities[i], heap.peekPriority(), 0);
+                int id = heap.poll();
+                assertFalse(heap.contains(id));
+            }
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    /** Tests that lowering a priority moves the id in place, and raising it does nothing. */
+    @Test
+    public void testDecreaseKey() {
+        IndexedHeap heap = new IndexedHeap(4, 4);
+        heap.offer(0, 5.0);
+        heap.offer(1, 3.0);
+        heap.offer(2, 4.0);
+        assertFalse(heap.offer(1, 9.0));
+        assertTrue(heap.offer(2, 1.0));
+        assertEquals(3, heap.size());
+        assertEquals(1.0, heap.priorityOf(2), 0);
+        assertEquals(3, heap.inserts());
+        assertEquals(1, heap.decreases());
+        assertEquals(2, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(3, heap.polls());
+        heap.resetCounts();
+        assertEquals(0, heap.inserts());
+    }
+
+    /** Tests that clear empties the heap so every id can be queued again. */
+    @Test
+    public void testClear() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.offer(0, 1.0);
+        heap.offer(2, 2.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(0));
+        assertTrue(heap.offer(2, 7.0));
+        assertEquals(2, heap.poll());
+    }
+
+    /** Tests that growing keeps the queued ids in order and makes room for new ones. */
+    @Test
+    public void testEnsureCapacity() {
+        IndexedHeap heap = new IndexedHeap(2, 3);
+        heap.offer(1, 5.0);
+        heap.offer(0, 3.0);
+        heap.ensureCapacity(1);
+        assertEquals(2, heap.capacity());
+        heap.ensureCapacity(6);
+        assertEquals(6, heap.capacity());
+        assertFalse(heap.contains(4));
+        heap.offer(4, 4.0);
+        heap.offer(5, 1.0);
+        heap.offer(1, 2.0);
+        assertEquals(5, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(4, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    /** Tests that bad arguments throw exceptions. */
+    @Test
+    public void testIndexedHeapThrowsExceptions() {
+        try {
+            new IndexedHeap(4, 1);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+        try {
+            new IndexedHeap(-1);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+        IndexedHeap heap = new IndexedHeap(2);
+        try {
+            heap.poll();
+            fail("Expected NoSuchElementException not occurred.");
+        } catch (NoSuchElementException e) {
+            e.getStackTrace();
+        }
+        try {
+            heap.priorityOf(1);
+            fail("Expected NoSuchElementException not occurred.");
+        } catch (NoSuchElementException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class NodeIndexTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /** Tests that ids are dense, stable, and handed out in insertion order. */
+    @Test
+    public void testInternGivesDenseIds() {
+        NodeIndex<String> index = new NodeIndex<>();
+        assertEquals(0, index.intern("A"));
+        assertEquals(1, index.intern("B"));
+        assertEquals(0, index.intern("A"));
+        assertEquals(2, index.size());
+        assertEquals(1, index.idOf("B"));
+        assertEquals(-1, index.idOf("C"));
+        assertEquals(-1, index.idOf(null));
+        assertEquals("B", index.node(1));
+        assertTrue(index.contains("A"));
+        assertFalse(index.contains("C"));
+    }
+
+    /** Tests that the index keeps every id while growing past its starting size. */
+    @Test
+    public void testInternGrows() {
+        NodeIndex<Integer> index = new NodeIndex<>(2);
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, index.intern(i * 31));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, index.idOf(i * 31));
+            assertEquals(Integer.valueOf(i * 31), index.node(i));
+        }
+        assertEquals(-1, index.idOf(1));
+    }
+
+    /** Tests that bad arguments throw exceptions. */
+    @Test
+    public void testNodeIndexThrowsExceptions() {
+        NodeIndex<String> index = new NodeIndex<>();
+        try {
+            index.intern(null);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        } try {
+            index.node(0);
+            fail("Expected NoSuchElementException not occurred.");
+        } catch (NoSuchElementException e) {
+            e.getStackTrace();
+        } try {
+            new NodeIndex<String>(-1);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
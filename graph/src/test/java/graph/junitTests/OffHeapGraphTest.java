@@ -0,0 +1,64 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class OffHeapGraphTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    String A = "A";
+    String B = "B";
+    String C = "C";
+
+    /** Tests that the off-heap graph answers reads the same way as the map it came from. */
+    @Test
+    public void testReadsMatchDesignMap() {
+        DesignMap<String, Double> map1 = new DesignMap<>();
+        map1.addEdge(A, B, 1.0);
+        map1.addEdge(A, C, 2.0);
+        map1.addEdge(C, B, 3.0);
+        OffHeapGraph<String> graph = new OffHeapGraph<>(map1.toCsr(Double::doubleValue));
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(3, graph.edgeCount());
+        assertTrue(graph.contains(A));
+        assertFalse(graph.contains("D"));
+        assertEquals(3, graph.listNodes().size());
+        assertEquals(2, graph.listChildren(A).size());
+        assertEquals(2, graph.listParents(B).size());
+        assertTrue(graph.listParents(B).contains(C));
+        assertEquals(List.of(3.0), graph.getLabels(C, B));
+        assertEquals(new ArrayList<Double>(), graph.getLabels(B, C));
+        assertTrue(graph.offHeapBytes() > 0);
+
+        double[] total = {0};
+        graph.forEachEdge(A, (child, label) -> total[0] += label);
+        assertEquals(3.0, total[0], 1e-9);
+    }
+
+    /** Tests that missing and null nodes throw like DesignMap. */
+    @Test
+    public void testOffHeapGraphThrowsExceptions() {
+        DesignMap<String, Double> map1 = new DesignMap<>();
+        map1.addEdge(A, B, 1.0);
+        OffHeapGraph<String> graph = new OffHeapGraph<>(map1.toCsr(Double::doubleValue));
+        try {
+            graph.listChildren(null);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        } try {
+            graph.listParents(C);
+            fail("Expected NoSuchElementException not occurred.");
+        } catch (NoSuchElementException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package graph.junitTests;
+import graph.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class VersionedDesignMapTest {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    String A = "A";
+    String B = "B";
+    String C = "C";
+
+    /** Tests that a pinned version never sees later updates. */
+    @Test
+    public void testSnapshotIsolation() {
+        VersionedDesignMap<String, Double> map1 = new VersionedDesignMap<>();
+        map1.update(e -> {
+            e.addEdge(A, B, 1.0);
+            e.addEdge(B, C, 2.0);
+        });
+        GraphVersion<String, Double> pinned = map1.snapshot();
+        assertEquals(1, pinned.version());
+
+        map1.update(e -> {
+            e.removeNode(B);
+            e.addEdge(A, C, 5.0);
+        });
+        GraphVersion<String, Double> latest = map1.snapshot();
+        assertEquals(2, latest.version());
+
+        // the pinned version is unchanged
+        assertTrue(pinned.contains(B));
+        assertEquals(List.of(B), pinned.listChildren(A));
+        assertEquals(List.of(B), pinned.listParents(C));
+        assertEquals(List.of(2.0), pinned.getLabels(B, C));
+
+        // the new version has every edit of the batch
+        assertFalse(latest.contains(B));
+        assertEquals(List.of(C), latest.listChildren(A));
+        assertEquals(List.of(A), latest.listParents(C));
+    }
+
+    /** Tests that a batch that throws publishes nothing. */
+    @Test
+    public void testFailedUpdatePublishesNothing() {
+        VersionedDesignMap<String, Double> map1 = new VersionedDesignMap<>();
+        map1.update(e -> e.addEdge(A, B, 1.0));
+        GraphVersion<String, Double> before = map1.snapshot();
+        try {
+            map1.update(e -> {
+                e.addEdge(B, C, 1.0);
+                e.addEdge(A, B, 1.0); // duplicate
+            });
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+        assertSame(before, map1.snapshot());
+        assertFalse(map1.snapshot().contains(C));
+        assertEquals(new ArrayList<String>(), map1.snapshot().listChildren(B));
+    }
+
+    /** Tests edge removal and node removal with a self loop. */
+    @Test
+    public void testRemovals() {
+        VersionedDesignMap<String, Double> map1 = new VersionedDesignMap<>();
+        map1.update(e -> {
+            e.addEdge(A, A, 1.0);
+            e.addEdge(A, B, 2.0);
+            e.addEdge(A, B, 3.0);
+        });
+        map1.update(e -> e.removeEdge(A, B, 2.0));
+        assertEquals(List.of(3.0), map1.snapshot().getLabels(A, B));
+        map1.update(e -> e.removeEdge(A, B, 3.0));
+        assertEquals(new ArrayList<String>(), map1.snapshot().listParents(B));
+        map1.update(e -> e.removeNode(A));
+        assertFalse(map1.snapshot().contains(A));
+        assertEquals(1, map1.snapshot().toCsr(Double::doubleValue).nodeCount());
+    }
+
+    /** Tests that forEachEdge follows edits while older versions keep their edges. */
+    @Test
+    public void testForEachEdgeAcrossVersions() {
+        VersionedDesignMap<String, Double> map1 = new VersionedDesignMap<>();
+        map1.update(e -> {
+            e.addEdge(A, B, 1.0);
+            e.addEdge(A, C, 2.0);
+            e.addEdge(C, A, 3.0);
+        });
+        GraphVersion<String, Double> pinned = map1.snapshot();
+        map1.update(e -> {
+            e.removeNode(C);
+            e.addEdge(A, B, 4.0);
+        });
+
+        List<Double> visited = new ArrayList<>();
+        map1.snapshot().forEachEdge(A, (child, label) -> visited.add(label));
+        visited.sort(null);
+        assertEquals(List.of(1.0, 4.0), visited);
+        visited.clear();
+        pinned.forEachEdge(A, (child, label) -> visited.add(label));
+        visited.sort(null);
+        assertEquals(List.of(1.0, 2.0), visited);
+        try {
+            map1.snapshot().forEachEdge(C, (child, label) -> visited.add(label));
+            fail("Expected NoSuchElementException not occurred.");
+        } catch (NoSuchElementException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -12,6 +12,7 @@
 package graph.scriptTestRunner;
 
 import graph.DesignMap;
+import graph.GraphFootprint;
 
 import java.io.*;
 import java.util.*;
@@ -93,6 +94,9 @@ public class GraphTestDriver {
                 case "ListChildren":
                     listChildren(arguments);
                     break;
+                case "Footprint":
+                    footprint(arguments);
+                    break;
                 default:
                     output.println("Unrecognized command: " + command);
                     break;
@@ -216,6 +220,20 @@ public class GraphTestDriver {
                 " are:" + str);
     }
 
+    private void footprint(List<String> arguments) {
+        if(arguments.size() != 1) {
+            throw new CommandException("Bad arguments to Footprint: " + arguments);
+        }
+
+        String graphName = arguments.get(0);
+        footprint(graphName);
+    }
+
+    private void footprint(String graphName) {
+        DesignMap<String, String> map1 = graphs.get(graphName);
+        output.println("the footprint of " + graphName + " is " + GraphFootprint.of(map1));
+    }
+
     /**
      * This exception results when the input file cannot be parsed properly
      **/
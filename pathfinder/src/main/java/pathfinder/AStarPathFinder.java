@@ -0,0 +1,207 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * AStarPathFinder is a shortest path search over a frozen graph whose nodes have x/y
+ *  coordinates. It orders its queue by the cost so far plus scale times the straight
+ *  line distance left to the destination, so it settles mostly the nodes that lie
+ *  towards the destination instead of every node closer to the start.
+ *
+ *  The estimate is only safe to use if scale times the straight line length of every
+ *  edge is at most the cost of that edge. The constructor checks every edge of the
+ *  graph, and if any edge breaks this rule the finder falls back to plain Dijkstra,
+ *  so it always returns a lowest cost path.
+ */
+public class AStarPathFinder<T> implements PathEngine<T> {
+
+    // Note: AStarPathFinder is not ann ADT, hence does not have RI or AF
+
+    // how far below its exact value calibratedScale sets the scale, so rounding in the
+    //  distance computations can never make the estimate too large
+    private static final double SAFETY_MARGIN = 1e-9;
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // the coordinates of each node, by id
+    private final double[] xs;
+    private final double[] ys;
+
+    // cost per unit of straight line distance
+    private final double scale;
+
+    // true iff scale times the length of every edge is at most its cost
+    private final boolean admissible;
+
+    // the kind of queue searches use
+    private final DijkstraPathFinder.QueueKind queueKind;
+
+    // plain search, used when the estimate is not admissible
+    private final DijkstraPathFinder<T, Double> fallback;
+
+    /**
+     * Constructs an A* search over graph, with the largest scale that is admissible
+     *  for graph's edges, and a QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @param x gives the x coordinate of a node
+     * @param y gives the y coordinate of a node
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public AStarPathFinder(CsrGraph<T> graph, ToDoubleFunction<? super T> x,
+                           ToDoubleFunction<? super T> y) throws IllegalArgumentException {
+        this(graph, x, y, calibratedScale(graph, x, y),
+                DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs an A* search over graph
+     * @param graph the graph to search
+     * @param x gives the x coordinate of a node
+     * @param y gives the y coordinate of a node
+     * @param scale the cost per unit of straight line distance, 1 if edge costs are in
+     *              the same units as the coordinates
+     * @param queueKind the kind of queue searches use
+     * @throws IllegalArgumentException if any argument is null, or scale is negative or
+     *         not finite
+     */
+    public AStarPathFinder(CsrGraph<T> graph, ToDoubleFunction<? super T> x,
+                           ToDoubleFunction<? super T> y, double scale,
+                           DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || x == null || y == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        if (!(scale >= 0) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException("Scale must be finite and non-negative.");
+        }
+        this.graph = graph;
+        this.scale = scale;
+        this.queueKind = queueKind;
+        this.fallback = new DijkstraPathFinder<>(Double::doubleValue, queueKind);
+        int n = graph.nodeCount();
+        this.xs = new double[n];
+        this.ys = new double[n];
+        for (int u = 0; u < n; u++) {
+            xs[u] = x.applyAsDouble(graph.node(u));
+            ys[u] = y.applyAsDouble(graph.node(u));
+        }
+        this.admissible = checkAdmissible();
+    }
+
+    /**
+     * Finds the largest scale for which the straight line estimate is admissible for
+     *  every edge of graph, that is, the lowest cost per unit of length of any edge,
+     *  lowered slightly to absorb rounding
+     * @param graph the graph to measure
+     * @param x gives the x coordinate of a node
+     * @param y gives the y coordinate of a node
+     * @throws IllegalArgumentException if any argument is null
+     * @return the largest safe scale, or 0 if graph has no edge of positive length
+     */
+    public static <T> double calibratedScale(CsrGraph<T> graph, ToDoubleFunction<? super T> x,
+                                             ToDoubleFunction<? super T> y)
+            throws IllegalArgumentException {
+        if (graph == null || x == null || y == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            T from = graph.node(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                T to = graph.node(graph.target(e));
+                double dx = x.applyAsDouble(to) - x.applyAsDouble(from);
+                double dy = y.applyAsDouble(to) - y.applyAsDouble(from);
+                double length = Math.sqrt(dx * dx + dy * dy);
+                if (length > 0) { best = Math.min(best, graph.weight(e) / length); }
+            }
+        }
+        return Double.isInfinite(best) ? 0 : best * (1 - SAFETY_MARGIN);
+    }
+
+    /**
+     * @return the cost per unit of straight line distance
+     */
+    public double scale() {
+        return scale;
+    }
+
+    /**
+     * @return true iff the straight line estimate is admissible for every edge, so
+     * searches use A*, or false if they fall back to plain Dijkstra
+     */
+    public boolean isAdmissible() {
+        return admissible;
+    }
+
+    /**
+     * Creates scratch space for searches of this finder, which can be passed to
+     *  shortestPath to reuse it across searches
+     * @return a new empty SearchWorkspace
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(queueKind);
+    }
+
+    @Override
+    public Path<T> shortestPath(int source, int target) {
+        return shortestPath(source, target, newWorkspace());
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the nodes with
+     *  the given ids, returns null if there isn't a path. The search reuses the arrays
+     *  and queue of workspace, and adds its counts to the counts of workspace.
+     * @param source the id of the start node of the path
+     * @param target the id of the end node of the path
+     * @param workspace the scratch space to search in
+     * @spec.requires workspace is not null, source and target are ids in the graph,
+     *                and no other search is using workspace
+     * @spec.modifies workspace
+     * @return the lowest cost path from source to target, or null if there is none
+     */
+    public Path<T> shortestPath(int source, int target, SearchWorkspace workspace) {
+        if (!admissible) { return fallback.shortestPath(graph, source, target, workspace); }
+        if (source == target) { return new Path<>(graph.node(source)); }
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, estimate(source, target), -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            if (u == target) {
+                return DijkstraPathFinder.buildPath(graph, workspace.parents(),
+                        workspace.parentEdges(), source, target);
+            }
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double newCost = costTo + graph.weight(e);
+                // the estimate is consistent, so a settled node is never improved
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, newCost + estimate(v, target), u, e);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Gives a lower bound on the cost of any path from u to target.
+    private double estimate(int u, int target) {
+        double dx = xs[target] - xs[u];
+        double dy = ys[target] - ys[u];
+        return scale * Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // Checks that scale times the length of every edge is at most its cost, which
+    //  makes the estimate consistent, and therefore admissible.
+    private boolean checkAdmissible() {
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (estimate(u, graph.target(e)) > graph.weight(e)) { return false; }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,277 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * AlternativeRouteFinder finds routes between two nodes of a frozen graph that differ
+ *  from the lowest cost route and from each other by more than a block or two, with
+ *  the penalty method. After the lowest cost route, it searches again and again with
+ *  the weight of every edge a search has already returned multiplied by a penalty, so
+ *  that each search is pushed off the routes found so far. A route found this way is
+ *  kept only if
+ *  <ul>
+ *      <li>its cost is at most maxStretch times the lowest cost,</li>
+ *      <li>at most maxOverlap of its cost is spent on edges of any route kept before
+ *      it, and</li>
+ *      <li>it is locally optimal: around the middle of each stretch where it leaves
+ *      the lowest cost route, a piece of it a quarter of its cost long is itself a
+ *      lowest cost path, so it takes no needless detour.</li>
+ *  </ul>
+ *
+ *  The penalties are kept in an array of factors by edge id made for each query, and
+ *  the graph itself is never changed, so a finder may answer many queries at once.
+ */
+public class AlternativeRouteFinder<T> {
+
+    // Note: AlternativeRouteFinder is not ann ADT, hence does not have RI or AF
+
+    // searches run per route asked for before giving up on finding more
+    private static final int ATTEMPTS_PER_ROUTE = 4;
+
+    // share of a route's cost checked around each of its detours for local optimality
+    private static final double LOCAL_WINDOW = 0.25;
+
+    // relative slack allowed when comparing a piece of a route to the lowest cost path
+    private static final double TOLERANCE = 1e-9;
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // factor the weight of an edge is multiplied by each time a search returns it
+    private final double penalty;
+
+    // largest share of a route's cost that may be spent on an earlier route's edges
+    private final double maxOverlap;
+
+    // largest cost of a route, as a multiple of the lowest cost
+    private final double maxStretch;
+
+    // the kind of queue searches use
+    private final DijkstraPathFinder.QueueKind queueKind;
+
+    /**
+     * Constructs an alternative route finder over graph that penalizes used edges by
+     *  half their weight, keeps routes that share at most 60% of their cost with an
+     *  earlier route and cost at most 40% more than the lowest cost, and searches with a
+     *  QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @throws IllegalArgumentException if graph is null
+     */
+    public AlternativeRouteFinder(CsrGraph<T> graph) throws IllegalArgumentException {
+        this(graph, 1.5, 0.6, 1.4, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs an alternative route finder over graph
+     * @param graph the graph to search
+     * @param penalty the factor the weight of an edge is multiplied by each time a search
+     *                returns it
+     * @param maxOverlap the largest share of a route's cost that may be spent on the
+     *                   edges of an earlier route; below 1, so no route is kept twice
+     * @param maxStretch the largest cost of a route, as a multiple of the lowest cost
+     * @param queueKind the kind of queue searches use
+     * @throws IllegalArgumentException if graph or queueKind is null, penalty is not
+     *         greater than 1, maxOverlap is not in [0, 1), or maxStretch is less than 1
+     */
+    public AlternativeRouteFinder(CsrGraph<T> graph, double penalty, double maxOverlap,
+                                  double maxStretch, DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        if (!(penalty > 1)) {
+            throw new IllegalArgumentException("Penalty must be greater than 1.");
+        }
+        if (!(maxOverlap >= 0 && maxOverlap < 1)) {
+            throw new IllegalArgumentException("Overlap must be at least 0 and below 1.");
+        }
+        if (!(maxStretch >= 1)) {
+            throw new IllegalArgumentException("Stretch must be at least 1.");
+        }
+        this.graph = graph;
+        this.penalty = penalty;
+        this.maxOverlap = maxOverlap;
+        this.maxStretch = maxStretch;
+        this.queueKind = queueKind;
+    }
+
+    /**
+     * Creates scratch space for the searches of a query, which can be passed to routes
+     *  to reuse it across queries
+     * @return a new empty SearchWorkspace
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(queueKind);
+    }
+
+    /**
+     * Finds the lowest cost route and up to k - 1 alternatives to it between the nodes
+     *  with the given ids
+     * @param source the id of the start node of the routes
+     * @param target the id of the end node of the routes
+     * @param k the most routes to find
+     * @throws IllegalArgumentException if k is not positive, or source or target is not
+     *         an id in the graph
+     * @return the lowest cost route, then the alternatives found, cheapest first; none if
+     * there is no route
+     */
+    public List<Path<T>> routes(int source, int target, int k) throws IllegalArgumentException {
+        return routes(source, target, k, newWorkspace());
+    }
+
+    /**
+     * Finds the lowest cost route and up to k - 1 alternatives to it between the nodes
+     *  with the given ids. Every search of the query reuses the arrays and queue of
+     *  workspace, and adds its counts to the counts of workspace.
+     * @param source the id of the start node of the routes
+     * @param target the id of the end node of the routes
+     * @param k the most routes to find
+     * @param workspace the scratch space to search in
+     * @throws IllegalArgumentException if workspace is null, k is not positive, or source
+     *         or target is not an id in the graph
+     * @spec.requires no other search is using workspace
+     * @spec.modifies workspace
+     * @return the lowest cost route, then the alternatives found, cheapest first; none if
+     * there is no route
+     */
+    public List<Path<T>> routes(int source, int target, int k, SearchWorkspace workspace)
+            throws IllegalArgumentException {
+        if (workspace == null) { throw new IllegalArgumentException("Null workspace received."); }
+        if (k <= 0) { throw new IllegalArgumentException("k must be positive."); }
+        int n = graph.nodeCount();
+        if (source < 0 || source >= n || target < 0 || target >= n) {
+            throw new IllegalArgumentException("Node id out of range.");
+        }
+        List<Path<T>> paths = new ArrayList<>();
+        if (source == target) {
+            paths.add(new Path<>(graph.node(source)));
+            return paths;
+        }
+        // the penalty overlay of this query: weight(e) * factor[e] is the searched weight
+        double[] factor = new double[graph.edgeCount()];
+        Arrays.fill(factor, 1.0);
+        int[] shortest = search(source, target, factor, workspace);
+        if (shortest == null) { return paths; }
+        double limit = maxStretch * DijkstraPathFinder.costAlong(graph, shortest);
+        boolean[] onShortest = new boolean[graph.edgeCount()];
+        for (int e: shortest) { onShortest[e] = true; }
+
+        List<int[]> kept = new ArrayList<>();
+        kept.add(shortest);
+        boolean[] mark = new boolean[graph.edgeCount()];
+        int[] last = shortest;
+        for (int attempt = 0; kept.size() < k && attempt < ATTEMPTS_PER_ROUTE * k; attempt++) {
+            for (int e: last) { factor[e] *= penalty; }
+            last = search(source, target, factor, workspace);
+            double cost = DijkstraPathFinder.costAlong(graph, last);
+            if (cost <= limit && !overlaps(last, cost, kept, mark)
+                    && isLocallyOptimal(last, cost, source, onShortest, workspace)) {
+                kept.add(last);
+            }
+        }
+        kept.sort(Comparator.comparingDouble(edges -> DijkstraPathFinder.costAlong(graph, edges)));
+        for (int[] edges: kept) {
+            paths.add(DijkstraPathFinder.pathAlong(graph, source, edges));
+        }
+        return paths;
+    }
+
+    /**
+     * Checks whether more than maxOverlap of a route's cost is spent on the edges of a
+     *  route kept before it
+     * @param edges the ids of the edges of the route
+     * @param cost the cost of the route
+     * @param kept the routes kept so far
+     * @param mark all false; used to mark the edges of each kept route, and cleared after
+     * @return true iff the route shares more than maxOverlap of its cost with a kept route
+     */
+    private boolean overlaps(int[] edges, double cost, List<int[]> kept, boolean[] mark) {
+        for (int[] other: kept) {
+            for (int e: other) { mark[e] = true; }
+            double shared = 0;
+            for (int e: edges) {
+                if (mark[e]) { shared += graph.weight(e); }
+            }
+            for (int e: other) { mark[e] = false; }
+            if (shared > maxOverlap * cost) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Checks that a route takes no needless detour: around the middle of each stretch of
+     *  the route off the lowest cost route, the piece of the route LOCAL_WINDOW of its
+     *  cost long must cost no more than the lowest cost path between the ends of the
+     *  piece
+     * @param edges the ids of the edges of the route
+     * @param cost the cost of the route
+     * @param source the id of the start node of the route
+     * @param onShortest marks the edges of the lowest cost route
+     * @param workspace the scratch space to search in
+     * @return true iff every piece checked is a lowest cost path
+     */
+    private boolean isLocallyOptimal(int[] edges, double cost, int source,
+                                     boolean[] onShortest, SearchWorkspace workspace) {
+        int[] nodes = new int[edges.length + 1];
+        double[] costTo = new double[edges.length + 1];
+        nodes[0] = source;
+        for (int i = 0; i < edges.length; i++) {
+            nodes[i + 1] = graph.target(edges[i]);
+            costTo[i + 1] = costTo[i] + graph.weight(edges[i]);
+        }
+        double half = LOCAL_WINDOW * cost / 2;
+        for (int a = 0; a < edges.length; a++) {
+            if (onShortest[edges[a]]) { continue; }
+            int b = a;
+            while (b < edges.length && !onShortest[edges[b]]) { b++; }
+            // edges a to b - 1 are a detour; check the window around its middle
+            double middle = (costTo[a] + costTo[b]) / 2;
+            // the window grows out from the edge the middle falls on
+            int from = a;
+            while (from + 1 < b && costTo[from + 1] <= middle) { from++; }
+            int to = from + 1;
+            while (from > 0 && costTo[from] > middle - half) { from--; }
+            while (to < edges.length && costTo[to] < middle + half) { to++; }
+            int[] best = search(nodes[from], nodes[to], null, workspace);
+            double bestCost = DijkstraPathFinder.costAlong(graph, best);
+            if (costTo[to] - costTo[from] > bestCost * (1 + TOLERANCE)) { return false; }
+            a = b;
+        }
+        return true;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from source to target, with the weight of every edge e
+     *  multiplied by factor[e]
+     * @param factor the factor of each edge weight, or null to search the weights as
+     *               they are
+     * @return the ids of the edges of the lowest cost path, or null if there is none
+     */
+    private int[] search(int source, int target, double[] factor, SearchWorkspace workspace) {
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            if (u == target) {
+                return DijkstraPathFinder.edgesTo(workspace.parents(),
+                        workspace.parentEdges(), source, target);
+            }
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double weight = factor == null ? graph.weight(e) : graph.weight(e) * factor[e];
+                double newCost = costTo + weight;
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, u, e);
+                }
+            }
+        }
+        return null;
+    }
+}
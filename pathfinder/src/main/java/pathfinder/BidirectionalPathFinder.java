@@ -0,0 +1,144 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+/**
+ * BidirectionalPathFinder is a shortest path search over a frozen graph that runs
+ *  Dijkstra's algorithm forward from the start and backward from the destination, over
+ *  the reversed graph, at the same time, until the two searches meet. Each search
+ *  only has to settle the nodes within about half the distance between the two ends,
+ *  which on a large map is roughly half as many nodes as one search from the start.
+ *
+ *  The searches keep the cost mu of the cheapest path seen through any node reached
+ *  by both, and stop once the lowest costs left in their two queues add up to at
+ *  least mu, since no path through an unsettled node can then be cheaper.
+ */
+public class BidirectionalPathFinder<T> implements PathEngine<T> {
+
+    // Note: BidirectionalPathFinder is not ann ADT, hence does not have RI or AF
+
+    // the graph searched forward
+    private final CsrGraph<T> graph;
+
+    // the graph with every edge reversed, searched backward; same node ids as graph
+    private final CsrGraph<T> reverse;
+
+    // the kind of queue both searches use
+    private final DijkstraPathFinder.QueueKind queueKind;
+
+    /**
+     * Constructs a bidirectional search over graph, with a QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @throws IllegalArgumentException if graph is null
+     */
+    public BidirectionalPathFinder(CsrGraph<T> graph) throws IllegalArgumentException {
+        this(graph, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs a bidirectional search over graph
+     * @param graph the graph to search
+     * @param queueKind the kind of queue both searches use
+     * @throws IllegalArgumentException if graph or queueKind is null
+     */
+    public BidirectionalPathFinder(CsrGraph<T> graph, DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        this.queueKind = queueKind;
+    }
+
+    /**
+     * Creates scratch space for one direction of a search of this finder
+     * @return a new empty SearchWorkspace
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(queueKind);
+    }
+
+    @Override
+    public Path<T> shortestPath(int source, int target) {
+        return shortestPath(source, target, newWorkspace(), newWorkspace());
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the nodes with
+     *  the given ids, returns null if there isn't a path. The search reuses the arrays
+     *  and queues of the two workspaces, and adds its counts to their counts.
+     * @param source the id of the start node of the path
+     * @param target the id of the end node of the path
+     * @param forward the scratch space of the search from source
+     * @param backward the scratch space of the search from target
+     * @spec.requires forward and backward are distinct and not null, source and target
+     *                are ids in the graph, and no other search is using either workspace
+     * @spec.modifies forward, backward
+     * @return the lowest cost path from source to target, or null if there is none
+     */
+    public Path<T> shortestPath(int source, int target, SearchWorkspace forward,
+                                SearchWorkspace backward) {
+        if (source == target) { return new Path<>(graph.node(source)); }
+        forward.begin(graph.nodeCount());
+        backward.begin(graph.nodeCount());
+        forward.reach(source, 0.0, -1, -1);
+        backward.reach(target, 0.0, -1, -1);
+
+        double mu = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        while (true) {
+            double topForward = forward.peekPriority();
+            double topBackward = backward.peekPriority();
+            // stop once no unsettled node can be on a path cheaper than mu; an empty
+            //  queue has top infinity, so this also stops when either side runs out
+            if (topForward + topBackward >= mu || Double.isInfinite(topForward)
+                    || Double.isInfinite(topBackward)) {
+                break;
+            }
+            // grow the side whose frontier is closer to its end
+            boolean growForward = topForward <= topBackward;
+            SearchWorkspace side = growForward ? forward : backward;
+            SearchWorkspace other = growForward ? backward : forward;
+            CsrGraph<T> g = growForward ? graph : reverse;
+            int u = side.settleNext();
+            double costTo = side.dist(u);
+            for (int e = g.firstEdge(u); e < g.endEdge(u); e++) {
+                int v = g.target(e);
+                double newCost = costTo + g.weight(e);
+                if (!side.isSettled(v) && newCost < side.dist(v)) {
+                    side.reach(v, newCost, u, e);
+                    double through = newCost + other.dist(v);
+                    if (through < mu) {
+                        mu = through;
+                        meet = v;
+                    }
+                }
+            }
+        }
+        return meet < 0 ? null : buildPath(source, target, meet, forward, backward);
+    }
+
+    /**
+     * Builds the path from source to meet out of the forward search, followed by the
+     *  path from meet to target out of the backward search
+     * @param source the id of the start node
+     * @param target the id of the end node
+     * @param meet a node reached by both searches on a lowest cost path
+     * @param forward the workspace of the search from source
+     * @param backward the workspace of the search from target
+     */
+    private Path<T> buildPath(int source, int target, int meet, SearchWorkspace forward,
+                              SearchWorkspace backward) {
+        Path<T> path = DijkstraPathFinder.buildPath(graph, forward.parents(),
+                forward.parentEdges(), source, meet);
+        int[] parent = backward.parents();
+        int[] parentEdge = backward.parentEdges();
+        // each reversed edge from parent[v] to v stands for the edge from v to parent[v]
+        for (int v = meet; v != target; v = parent[v]) {
+            path = path.extend(graph.node(parent[v]), reverse.weight(parentEdge[v]));
+        }
+        return path;
+    }
+}
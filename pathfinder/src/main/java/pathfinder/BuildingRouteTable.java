@@ -0,0 +1,176 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * BuildingRouteTable holds the lowest cost route between every pair of a small set of
+ *  nodes of a frozen graph, such as the buildings of a campus, so that a route is read
+ *  from memory instead of searched for. It is filled by one Dijkstra search per node of
+ *  the set, run in parallel, and stores each route as the array of the ids of its
+ *  edges, along with its cost.
+ *
+ *  Every route is the same one DijkstraPathFinder returns with the same kind of queue.
+ *  The table takes time and memory in the square of the number of nodes in it, so it
+ *  is only meant for sets of a few hundred nodes at most.
+ */
+public final class BuildingRouteTable<T> {
+
+    // Note: BuildingRouteTable is not ann ADT, hence does not have RI or AF
+
+    // the graph the routes run on
+    private final CsrGraph<T> graph;
+
+    // index[v] = the position of node v in the table, or -1 if it is not in the table
+    private final int[] index;
+
+    // number of distinct nodes in the table
+    private final int size;
+
+    // routes[i * size + j] = ids of the edges of the route from the i-th to the j-th
+    //  node of the table, or null if there is no route
+    private final int[][] routes;
+
+    // costs[i * size + j] = cost of that route, or infinity if there is none
+    private final double[] costs;
+
+    // time spent filling the table
+    private final long buildNanos;
+
+    /**
+     * Fills a table with the routes between every pair of the given nodes, using a
+     *  QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @param nodes the ids of the nodes of the table; repeated ids are kept once
+     * @throws IllegalArgumentException if graph or nodes is null, or nodes holds an id
+     *         that is not in graph
+     */
+    public BuildingRouteTable(CsrGraph<T> graph, int[] nodes) throws IllegalArgumentException {
+        this(graph, nodes, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Fills a table with the routes between every pair of the given nodes
+     * @param graph the graph to search
+     * @param nodes the ids of the nodes of the table; repeated ids are kept once
+     * @param queueKind the kind of queue searches use
+     * @throws IllegalArgumentException if any argument is null, or nodes holds an id
+     *         that is not in graph
+     */
+    public BuildingRouteTable(CsrGraph<T> graph, int[] nodes,
+                              DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || nodes == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        long start = System.nanoTime();
+        this.graph = graph;
+        this.index = new int[graph.nodeCount()];
+        Arrays.fill(index, -1);
+        int[] members = new int[nodes.length];
+        int count = 0;
+        for (int v: nodes) {
+            if (v < 0 || v >= graph.nodeCount()) {
+                throw new IllegalArgumentException("Node id out of range.");
+            }
+            if (index[v] < 0) {
+                index[v] = count;
+                members[count++] = v;
+            }
+        }
+        this.size = count;
+        this.routes = new int[size * size][];
+        this.costs = new double[size * size];
+
+        // each search writes only its own row, so the rows can be filled in parallel
+        DijkstraPathFinder<T, Double> finder = new DijkstraPathFinder<>(Double::doubleValue,
+                queueKind);
+        ThreadLocal<SearchWorkspace> workspaces = ThreadLocal.withInitial(finder::newWorkspace);
+        IntStream.range(0, size).parallel().forEach(i -> {
+            ShortestPathTree<T> tree = finder.shortestPathTree(graph, members[i],
+                    workspaces.get());
+            for (int j = 0; j < size; j++) {
+                costs[i * size + j] = tree.distanceTo(members[j]);
+                routes[i * size + j] = tree.edgesTo(members[j]);
+            }
+        });
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return the number of distinct nodes in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param v the id of a node in the graph
+     * @return true iff v is one of the nodes of the table
+     */
+    public boolean contains(int v) {
+        return v >= 0 && v < index.length && index[v] >= 0;
+    }
+
+    /**
+     * Gives the route between two nodes of the table
+     * @param source the id of the start node
+     * @param target the id of the end node
+     * @throws IllegalArgumentException if source or target is not a node of the table
+     * @return the lowest cost path from source to target, or null if there is none
+     */
+    public Path<T> path(int source, int target) throws IllegalArgumentException {
+        int[] route = routes[slot(source, target)];
+        if (route == null) { return null; }
+        Path<T> path = new Path<>(graph.node(source));
+        for (int e: route) {
+            path = path.extend(graph.node(graph.target(e)), graph.weight(e));
+        }
+        return path;
+    }
+
+    /**
+     * Gives the cost of the route between two nodes of the table
+     * @param source the id of the start node
+     * @param target the id of the end node
+     * @throws IllegalArgumentException if source or target is not a node of the table
+     * @return the cost of the lowest cost path from source to target, or infinity if
+     * there is none
+     */
+    public double distance(int source, int target) throws IllegalArgumentException {
+        return costs[slot(source, target)];
+    }
+
+    /**
+     * @return the time spent filling the table, in nanoseconds
+     */
+    public long buildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return the bytes of the route and cost arrays of the table, counting an array
+     * header per route
+     */
+    public long bytes() {
+        final long arrayHeader = 16;
+        long total = arrayHeader + (long) routes.length * Integer.BYTES
+                + arrayHeader + (long) costs.length * Double.BYTES
+                + arrayHeader + (long) index.length * Integer.BYTES;
+        for (int[] route: routes) {
+            if (route != null) { total += arrayHeader + (long) route.length * Integer.BYTES; }
+        }
+        return total;
+    }
+
+    // Gives the position of the route from source to target in the flat arrays.
+    private int slot(int source, int target) throws IllegalArgumentException {
+        if (!contains(source) || !contains(target)) {
+            throw new IllegalArgumentException("Node is not in the table.");
+        }
+        return index[source] * size + index[target];
+    }
+}
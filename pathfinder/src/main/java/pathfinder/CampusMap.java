@@ -11,15 +11,18 @@
 
 package pathfinder;
 
-import graph.DesignMap;
+import graph.CsrGraph;
+import graph.DesignMapBuilder;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,10 +34,177 @@ public class CampusMap implements ModelAPI {
 
     // Note: CampusMap is not ann ADT, hence does not have RI or AF
 
+    // number of landmarks the LANDMARKS engine picks
+    private static final int LANDMARK_COUNT = 8;
+
+    // number of start buildings the CACHED_TREES engine keeps shortest path trees for
+    private static final int TREE_CACHE_SIZE = 16;
+
+    /**
+     * The search engines a CampusMap can answer findShortestPath with
+     */
+    public enum Engine {
+        /** Dijkstra's algorithm, settling nodes in order of their distance */
+        DIJKSTRA,
+        /** A* with the straight line distance to the destination as the estimate */
+        A_STAR,
+        /** Dijkstra's algorithm from both ends at once, until the two searches meet */
+        BIDIRECTIONAL,
+        /** A* with estimates from distances to landmarks picked around the campus */
+        LANDMARKS,
+        /** upward searches from both ends over a contraction hierarchy of the campus */
+        CONTRACTION_HIERARCHY,
+        /** Dijkstra's algorithm to every node, keeping the shortest path trees of the
+         *  start buildings used most recently */
+        CACHED_TREES,
+        /** Dijkstra's algorithm with a queue of buckets as wide as the shortest path
+         *  segment in place of a heap */
+        DIAL
+    }
+
+    // short name -> long name of every building
+    private final Map<String, String> names;
+
+    // short name -> id of the building's node in graph
+    private final Map<String, Integer> buildingIds;
+
+    // id of a building's node in graph -> the building's short name
+    private final Map<Integer, String> buildingsById;
+
+    // building -> the short names of its entrances, in the order they are listed
+    private final Map<String, List<String>> entrances;
+
+    // frozen campus graph that every search runs on
+    private final CsrGraph<Point> graph;
+
+    // shortest path search over graph, or null if routes are read from the route table
+    private final PathEngine<Point> engine;
+
+    // distance oracle over graph, built on the first findShortestDistance, or null if
+    //  distances are read from the route table
+    private final Lazy<HubLabels<Point>> labels;
+
+    // every route between two buildings, or null if routes are searched for each query
+    private final BuildingRouteTable<Point> routes;
+
+    // many-to-many search over graph, or null if distances are read from the route table
+    private final DistanceMatrix<Point> matrix;
+
+    // search for everything within a budget of a building or for the nearest of a set
+    //  of buildings, and the scratch space each thread runs it in, so that a slider
+    //  dragged in the frontend does not allocate a workspace per step
+    private final DijkstraPathFinder<Point, Double> dijkstra;
+    private final ThreadLocal<SearchWorkspace> workspaces;
+
+    // k shortest paths search over graph, built on the first findShortestPaths
+    private final Lazy<KShortestPathFinder<Point>> kShortest;
+
+    // penalty method search for meaningfully different routes over graph, built on the
+    //  first findAlternativePaths
+    private final Lazy<AlternativeRouteFinder<Point>> alternatives;
+
+    /**
+     * Constructs a CampusMap that finds paths with Dijkstra's algorithm, keeping the
+     *  shortest path trees of recent start buildings. No route table is computed; use
+     *  CampusMap(boolean) to turn it on.
+     * @throws CampusPathsParser.ParserException if the data files cannot be read
+     */
+    public CampusMap() {
+        this(Engine.CACHED_TREES, false);
+    }
+
+    /**
+     * Constructs a CampusMap that either reads every route between two buildings from a
+     *  table computed now, or finds paths with Dijkstra's algorithm, keeping the
+     *  shortest path trees of recent start buildings
+     * @param precomputeRoutes whether to compute the route between every pair of
+     *                         buildings now; see CampusMap(Engine, boolean)
+     * @throws CampusPathsParser.ParserException if the data files cannot be read
+     */
+    public CampusMap(boolean precomputeRoutes) {
+        this(Engine.CACHED_TREES, precomputeRoutes);
+    }
+
+    /**
+     * Constructs a CampusMap that searches for every route with the given engine
+     * @param engine the search engine findShortestPath uses
+     * @throws IllegalArgumentException if engine is null
+     * @throws CampusPathsParser.ParserException if the data files cannot be read
+     */
+    public CampusMap(Engine engine) {
+        this(engine, false);
+    }
+
+    /**
+     * Constructs a CampusMap by loading the campus buildings and paths once. Every
+     *  query after that runs on node ids in the loaded graph, and Points are only
+     *  looked up to build the returned Path.
+     * @param engine the search engine findShortestPath uses when there is no route table;
+     *               it has no effect when precomputeRoutes is true, since every route
+     *               is then read from the table and no engine is built
+     * @param precomputeRoutes whether to compute the route between every pair of
+     *                         buildings now, with one search per building run in
+     *                         parallel, so that findShortestPath and findShortestDistance
+     *                         read them from memory; the table grows with the square of
+     *                         the number of buildings, so leave it off for large maps
+     * @throws IllegalArgumentException if engine is null
+     * @throws CampusPathsParser.ParserException if the data files cannot be read
+     */
+    public CampusMap(Engine engine, boolean precomputeRoutes) {
+        if (engine == null) { throw new IllegalArgumentException("Null engine received."); }
+        List<CampusBuilding> buildings =
+                CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
+
+        // loads all nodes, then all edges, in one pass each; paths are listed in both
+        //  directions, so there are at most as many nodes as paths
+        DesignMapBuilder<Point, Double> builder = new DesignMapBuilder<>(paths.size());
+        for (CampusBuilding building: buildings) {
+            builder.addNode(new Point(building.getX(), building.getY()));
+        }
+        builder.addEdges(paths,
+                path -> new Point(path.getX1(), path.getY1()),
+                path -> new Point(path.getX2(), path.getY2()),
+                CampusPath::getDistance);
+        // the searches only read the map, so keep a frozen snapshot of it
+        this.graph = builder.build().toCsr(Double::doubleValue);
+        this.dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        this.workspaces = ThreadLocal.withInitial(dijkstra::newWorkspace);
+        this.kShortest = new Lazy<>(() -> new KShortestPathFinder<>(graph));
+        this.alternatives = new Lazy<>(() -> new AlternativeRouteFinder<>(graph));
+
+        this.names = new HashMap<>();
+        this.buildingIds = new HashMap<>();
+        this.buildingsById = new HashMap<>();
+        this.entrances = new HashMap<>();
+        for (CampusBuilding building: buildings) {
+            int id = graph.idOf(new Point(building.getX(), building.getY()));
+            names.put(building.getShortName(), building.getLongName());
+            buildingIds.put(building.getShortName(), id);
+            buildingsById.put(id, building.getShortName());
+            entrances.computeIfAbsent(buildingOf(building.getShortName()),
+                    k -> new ArrayList<>()).add(building.getShortName());
+        }
+        if (precomputeRoutes) {
+            int[] ids = buildingIds.values().stream().mapToInt(Integer::intValue).toArray();
+            this.routes = new BuildingRouteTable<>(graph, ids);
+            this.engine = null;
+            this.matrix = null;
+            this.labels = null;
+        } else {
+            this.routes = null;
+            this.engine = createEngine(engine, graph);
+            this.matrix = new DistanceMatrix<>(graph);
+            // only findShortestDistance needs the labels, so most maps never pay for them
+            this.labels = new Lazy<>(
+                    () -> new HubLabels<>(graph, HubLabels.Ordering.CONTRACTION_HIERARCHY));
+        }
+    }
+
     @Override
     public boolean shortNameExists(String shortName) {
         // DONE: Implement this method exactly as it is specified in ModelAPI
-        return buildingNames().containsKey(shortName);
+        return names.containsKey(shortName);
     }
 
     @Override
@@ -43,19 +213,14 @@ public class CampusMap implements ModelAPI {
         if (!shortNameExists(shortName)) {
             throw new IllegalArgumentException("short name provided does not exist");
         } else {
-            return buildingNames().get(shortName);
+            return names.get(shortName);
         }
     }
 
     @Override
     public Map<String, String> buildingNames() {
         // DONE: Implement this method exactly as it is specified in ModelAPI
-        Map<String, String> names = new HashMap<>();
-        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
-        for (CampusBuilding building: buildings) {
-            names.put(building.getShortName(), building.getLongName());
-        }
-        return names;
+        return new HashMap<>(names);
     }
 
     @Override
@@ -64,40 +229,170 @@ public class CampusMap implements ModelAPI {
         if (!shortNameExists(startShortName) || !shortNameExists(endShortName)) {
             throw new IllegalArgumentException("Not valid short names of buildings");
         }
-        List<CampusBuilding> buildings =
-                CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
-        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
+        int start = buildingIds.get(startShortName);
+        int end = buildingIds.get(endShortName);
+        return routes != null ? routes.path(start, end) : engine.shortestPath(start, end);
+    }
 
-        // adds all nodes to map, and tags the start and end buildings
-        DesignMap<Point, Double> map = new DesignMap<>();
-        Point startBuilding = null;
-        Point endBuilding = null;
-        for (CampusBuilding building: buildings) {
-            Point newBuilding = new Point(building.getX(), building.getY());
-            map.addNode(newBuilding);
-            if (building.getShortName().equals(startShortName)) {
-                startBuilding = newBuilding;
+    @Override
+    public Path<Point> findShortestPathToNearest(String startShortName,
+                                                 Collection<String> endShortNames) {
+        if (!shortNameExists(startShortName)) {
+            throw new IllegalArgumentException("Not valid short names of buildings");
+        }
+        if (endShortNames == null) { throw new IllegalArgumentException("Null set received."); }
+        int start = buildingIds.get(startShortName);
+        int[] ends = idsOf(new ArrayList<>(endShortNames));
+        if (ends.length == 0) { return null; }
+        if (routes == null) { return dijkstra.nearestPath(graph, start, ends, workspaces.get()); }
+        int nearest = -1;
+        double best = Double.POSITIVE_INFINITY;
+        for (int end: ends) {
+            double distance = routes.distance(start, end);
+            if (distance < best) {
+                best = distance;
+                nearest = end;
             }
-            if (building.getShortName().equals(endShortName)) {
-                endBuilding = newBuilding;
+        }
+        return nearest < 0 ? null : routes.path(start, nearest);
+    }
+
+    @Override
+    public Path<Point> findShortestPathToBuilding(String startShortName, String building) {
+        if (building == null || !entrances.containsKey(buildingOf(building))) {
+            throw new IllegalArgumentException("Not a valid building");
+        }
+        return findShortestPathToNearest(startShortName, entrances.get(buildingOf(building)));
+    }
+
+    @Override
+    public Map<String, List<String>> buildingEntrances() {
+        Map<String, List<String>> copy = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry: entrances.entrySet()) {
+            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @Override
+    public Reachability reachableWithin(String shortName, double budget) {
+        if (!shortNameExists(shortName)) {
+            throw new IllegalArgumentException("Not valid short names of buildings");
+        }
+        Isochrone<Point> isochrone = dijkstra.isochrone(graph, buildingIds.get(shortName),
+                budget, workspaces.get());
+        LinkedHashMap<String, Double> within = new LinkedHashMap<>();
+        for (int i = 0; i < isochrone.size(); i++) {
+            String building = buildingsById.get(isochrone.id(i));
+            if (building != null) { within.put(building, isochrone.distance(i)); }
+        }
+        return new Reachability(within, isochrone);
+    }
+
+    @Override
+    public double findShortestDistance(String startShortName, String endShortName) {
+        if (!shortNameExists(startShortName) || !shortNameExists(endShortName)) {
+            throw new IllegalArgumentException("Not valid short names of buildings");
+        }
+        int start = buildingIds.get(startShortName);
+        int end = buildingIds.get(endShortName);
+        return routes != null ? routes.distance(start, end) : labels.get().distance(start, end);
+    }
+
+    @Override
+    public double[][] findShortestDistances(List<String> startShortNames,
+                                            List<String> endShortNames) {
+        int[] starts = idsOf(startShortNames);
+        int[] ends = idsOf(endShortNames);
+        if (routes == null) { return matrix.compute(starts, ends); }
+        double[][] result = new double[starts.length][ends.length];
+        for (int i = 0; i < starts.length; i++) {
+            for (int j = 0; j < ends.length; j++) {
+                result[i][j] = routes.distance(starts[i], ends[j]);
             }
         }
+        return result;
+    }
+
+    @Override
+    public List<Path<Point>> findShortestPaths(String startShortName, String endShortName,
+                                               int k) {
+        if (!shortNameExists(startShortName) || !shortNameExists(endShortName)) {
+            throw new IllegalArgumentException("Not valid short names of buildings");
+        }
+        return kShortest.get().shortestPaths(buildingIds.get(startShortName),
+                buildingIds.get(endShortName), k);
+    }
 
-        // checks if either start or end building is still null
-        if (startBuilding == null && endBuilding == null) {
-            throw new IllegalArgumentException("start or end are null");
+    @Override
+    public List<Path<Point>> findAlternativePaths(String startShortName, String endShortName,
+                                                  int k) {
+        if (!shortNameExists(startShortName) || !shortNameExists(endShortName)) {
+            throw new IllegalArgumentException("Not valid short names of buildings");
         }
+        return alternatives.get().routes(buildingIds.get(startShortName),
+                buildingIds.get(endShortName), k);
+    }
 
-        // adds all edges to map
-        for (CampusPath path : paths) {
-            Point startPoint = new Point(path.getX1(), path.getY1());
-            Point endPoint = new Point(path.getX2(), path.getY2());
-            double weight = path.getDistance();
-            map.addEdge(startPoint, endPoint, weight);
+    /**
+     * Gives the building an entrance belongs to, which is its short name up to any
+     *  parenthesized suffix, so that "BAG" and "BAG (NE)" both belong to "BAG"
+     * @param shortName the short name of an entrance
+     * @return the name of the building shortName is an entrance of
+     */
+    private static String buildingOf(String shortName) {
+        int suffix = shortName.indexOf(" (");
+        return suffix < 0 ? shortName : shortName.substring(0, suffix);
+    }
+
+    /**
+     * Looks up the node ids of the given buildings
+     * @param shortNames the short names of the buildings
+     * @throws IllegalArgumentException if shortNames is null, or holds a name that is
+     *         not the short name of a building
+     * @return the node id of each building, in the same order
+     */
+    private int[] idsOf(List<String> shortNames) {
+        if (shortNames == null) { throw new IllegalArgumentException("Null list received."); }
+        int[] ids = new int[shortNames.size()];
+        for (int i = 0; i < ids.length; i++) {
+            if (!shortNameExists(shortNames.get(i))) {
+                throw new IllegalArgumentException("Not valid short names of buildings");
+            }
+            ids[i] = buildingIds.get(shortNames.get(i));
         }
+        return ids;
+    }
 
-        DijkstraPathFinder<Point, Double> finder = new DijkstraPathFinder<>();
-        return finder.DijkstraPath(map, startBuilding, endBuilding);
+    /**
+     * Builds the search engine of the given kind over graph
+     * @param engine the kind of engine
+     * @param graph the campus graph
+     * @return an engine that searches graph
+     */
+    private static PathEngine<Point> createEngine(Engine engine, CsrGraph<Point> graph) {
+        switch (engine) {
+            case A_STAR:
+                // coordinates are in pixels and distances in feet, so the scale is
+                //  measured from the paths themselves
+                return new AStarPathFinder<>(graph, Point::getX, Point::getY);
+            case LANDMARKS:
+                return new LandmarkPathFinder<>(graph, LANDMARK_COUNT,
+                        LandmarkPathFinder.Strategy.FARTHEST);
+            case BIDIRECTIONAL:
+                return new BidirectionalPathFinder<>(graph);
+            case CONTRACTION_HIERARCHY:
+                return new ContractionHierarchy<>(graph);
+            case CACHED_TREES:
+                return new ShortestPathTreeCache<>(graph, TREE_CACHE_SIZE);
+            case DIAL:
+                return new DialPathFinder<>(graph);
+            case DIJKSTRA:
+            default:
+                DijkstraPathFinder<Point, Double> finder =
+                        new DijkstraPathFinder<>(Double::doubleValue);
+                return (source, target) -> finder.shortestPath(graph, source, target);
+        }
     }
 
 }
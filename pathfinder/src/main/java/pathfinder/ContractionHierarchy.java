@@ -0,0 +1,579 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import graph.IndexedHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+
+/**
+ * ContractionHierarchy is a shortest path engine that spends time up front so that
+ *  each query settles only a few hundred nodes, however large the graph is.
+ *
+ *  Preprocessing contracts the nodes one at a time, cheapest first. Contracting a
+ *  node v removes it from the remaining graph; for each pair of remaining neighbours
+ *  u -> v -> x it adds a shortcut u -> x, unless a local witness search finds a path
+ *  from u to x that avoids v and costs no more. The cheapest node to contract is the
+ *  one with the lowest edge difference (shortcuts added minus edges removed), counted
+ *  twice, plus the number of its neighbours already contracted and the depth of the
+ *  hierarchy below it, which spread contraction evenly over the graph. The position
+ *  of a node in this order is its rank.
+ *
+ *  A query runs Dijkstra's algorithm upward from the start, only along edges to
+ *  higher ranked nodes, and upward from the destination along reversed edges, until
+ *  neither search can improve the best meeting point. Every shortest path has a
+ *  shortest equivalent that first climbs and then descends in rank, so the two
+ *  searches always meet on it. A search does not relax the edges of a node that a
+ *  higher ranked node gives a cheaper way to (stall-on-demand). Shortcuts on the
+ *  result are unpacked recursively back into the edges of the original graph.
+ */
+public class ContractionHierarchy<T> implements PathEngine<T> {
+
+    // Note: ContractionHierarchy is not ann ADT, hence does not have RI or AF
+
+    // most nodes a witness search settles while contracting a node; a search that
+    //  gives up adds a shortcut that may not be needed, which is safe
+    private static final int WITNESS_LIMIT = 100;
+
+    // most nodes a witness search settles while estimating a node's priority
+    private static final int ESTIMATE_LIMIT = 30;
+
+    // the original graph, which unpacked paths are made of
+    private final CsrGraph<T> graph;
+
+    // rank of each node: the position at which it was contracted
+    private final int[] rank;
+
+    // every edge of the hierarchy, original or shortcut, by edge id:
+    //  the id of the matching CsrGraph edge, or -1 for a shortcut, and
+    //  for a shortcut from u to x through v, the ids of its edges u -> v and v -> x
+    private final int[] original;
+    private final int[] firstHalf;
+    private final int[] secondHalf;
+
+    // edges from each node to higher ranked nodes, in compressed sparse row form
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upEdges;
+
+    // edges into each node from higher ranked nodes, reversed, in the same form
+    private final int[] downOffsets;
+    private final int[] downTargets;
+    private final double[] downWeights;
+    private final int[] downEdges;
+
+    // number of shortcuts in the hierarchy
+    private final int shortcutCount;
+
+    // the kind of queue queries use
+    private final DijkstraPathFinder.QueueKind queueKind;
+
+    // time spent contracting the graph
+    private final long preprocessingNanos;
+
+    /**
+     * Builds a contraction hierarchy over graph, whose queries use a QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @throws IllegalArgumentException if graph is null
+     */
+    public ContractionHierarchy(CsrGraph<T> graph) throws IllegalArgumentException {
+        this(graph, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Builds a contraction hierarchy over graph
+     * @param graph the graph to search
+     * @param queueKind the kind of queue queries use
+     * @throws IllegalArgumentException if graph or queueKind is null
+     */
+    public ContractionHierarchy(CsrGraph<T> graph, DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        long start = System.nanoTime();
+        this.graph = graph;
+        this.queueKind = queueKind;
+        Contractor contractor = new Contractor(graph);
+        contractor.contractAll();
+        int n = graph.nodeCount();
+        int edges = contractor.edges;
+        this.rank = contractor.rank;
+        this.original = Arrays.copyOf(contractor.original, edges);
+        this.firstHalf = Arrays.copyOf(contractor.firstHalf, edges);
+        this.secondHalf = Arrays.copyOf(contractor.secondHalf, edges);
+        this.shortcutCount = contractor.shortcuts;
+
+        // the edges a node still had when it was contracted all lead to or from higher
+        //  ranked nodes, and are its upward and reversed downward edges
+        this.upOffsets = new int[n + 1];
+        this.downOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] = upOffsets[v] + contractor.outSize[v];
+            downOffsets[v + 1] = downOffsets[v] + contractor.inSize[v];
+        }
+        this.upTargets = new int[upOffsets[n]];
+        this.upWeights = new double[upOffsets[n]];
+        this.upEdges = new int[upOffsets[n]];
+        this.downTargets = new int[downOffsets[n]];
+        this.downWeights = new double[downOffsets[n]];
+        this.downEdges = new int[downOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            for (int i = 0; i < contractor.outSize[v]; i++) {
+                int id = contractor.out[v][i];
+                upTargets[upOffsets[v] + i] = contractor.to[id];
+                upWeights[upOffsets[v] + i] = contractor.weight[id];
+                upEdges[upOffsets[v] + i] = id;
+            }
+            for (int i = 0; i < contractor.inSize[v]; i++) {
+                int id = contractor.in[v][i];
+                downTargets[downOffsets[v] + i] = contractor.from[id];
+                downWeights[downOffsets[v] + i] = contractor.weight[id];
+                downEdges[downOffsets[v] + i] = id;
+            }
+        }
+        this.preprocessingNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return the number of shortcuts added to the graph
+     */
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * @return the time spent contracting the graph, in nanoseconds
+     */
+    public long preprocessingNanos() {
+        return preprocessingNanos;
+    }
+
+    /**
+     * @param id the id of a node in the graph
+     * @return the position at which the node was contracted, from 0 for the first
+     */
+    public int rankOf(int id) {
+        return rank[id];
+    }
+
+    /**
+     * Creates scratch space for one direction of a query, which can be passed to
+     *  shortestPath to reuse it across queries
+     * @return a new empty SearchWorkspace
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(queueKind);
+    }
+
+    @Override
+    public Path<T> shortestPath(int source, int target) {
+        return shortestPath(source, target, newWorkspace(), newWorkspace());
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the nodes with
+     *  the given ids, with every shortcut unpacked, returns null if there isn't a path
+     * @param source the id of the start node of the path
+     * @param target the id of the end node of the path
+     * @param forward the scratch space of the search from source
+     * @param backward the scratch space of the search from target
+     * @spec.requires forward and backward are distinct and not null, source and target
+     *                are ids in the graph, and no other search is using either workspace
+     * @spec.modifies forward, backward
+     * @return the lowest cost path from source to target, or null if there is none
+     */
+    public Path<T> shortestPath(int source, int target, SearchWorkspace forward,
+                                SearchWorkspace backward) {
+        if (source == target) { return new Path<>(graph.node(source)); }
+        int meet = search(source, target, forward, backward);
+        if (meet < 0) { return null; }
+
+        // the hierarchy edges from source up to meet, then from meet down to target
+        int[] up = forward.parents();
+        int[] upEdge = forward.parentEdges();
+        int length = 0;
+        for (int v = meet; v != source; v = up[v]) { length++; }
+        int[] route = new int[length];
+        for (int v = meet, i = length - 1; v != source; v = up[v], i--) {
+            route[i] = upEdges[upEdge[v]];
+        }
+        Path<T> path = new Path<>(graph.node(source));
+        for (int id: route) { path = unpack(id, path); }
+        int[] down = backward.parents();
+        int[] downEdge = backward.parentEdges();
+        for (int v = meet; v != target; v = down[v]) {
+            path = unpack(downEdges[downEdge[v]], path);
+        }
+        return path;
+    }
+
+    /**
+     * Finds the lowest cost of a path between the nodes with the given ids, without
+     *  building the path
+     * @param source the id of the start node
+     * @param target the id of the end node
+     * @param forward the scratch space of the search from source
+     * @param backward the scratch space of the search from target
+     * @spec.requires forward and backward are distinct and not null, source and target
+     *                are ids in the graph, and no other search is using either workspace
+     * @spec.modifies forward, backward
+     * @return the lowest cost of a path from source to target, or infinity if there is
+     * no path
+     */
+    public double distance(int source, int target, SearchWorkspace forward,
+                           SearchWorkspace backward) {
+        if (source == target) { return 0.0; }
+        int meet = search(source, target, forward, backward);
+        return meet < 0 ? Double.POSITIVE_INFINITY : forward.dist(meet) + backward.dist(meet);
+    }
+
+    /**
+     * Runs the upward searches from source and target until neither can improve the
+     *  best meeting node
+     * @return the meeting node on a lowest cost path, or -1 if there is no path
+     */
+    private int search(int source, int target, SearchWorkspace forward,
+                       SearchWorkspace backward) {
+        int n = graph.nodeCount();
+        forward.begin(n);
+        backward.begin(n);
+        forward.reach(source, 0.0, -1, -1);
+        backward.reach(target, 0.0, -1, -1);
+        double mu = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        boolean forwardDone = false;
+        boolean backwardDone = false;
+        while (true) {
+            // a side is done once nothing left in its queue is cheaper than mu
+            double topForward = forwardDone ? Double.POSITIVE_INFINITY : forward.peekPriority();
+            double topBackward = backwardDone ? Double.POSITIVE_INFINITY : backward.peekPriority();
+            forwardDone |= topForward >= mu;
+            backwardDone |= topBackward >= mu;
+            if (forwardDone && backwardDone) { break; }
+            boolean growForward = !forwardDone && (backwardDone || topForward <= topBackward);
+            SearchWorkspace side = growForward ? forward : backward;
+            SearchWorkspace other = growForward ? backward : forward;
+            int[] offsets = growForward ? upOffsets : downOffsets;
+            int[] targets = growForward ? upTargets : downTargets;
+            double[] weights = growForward ? upWeights : downWeights;
+            int u = side.settleNext();
+            double costTo = side.dist(u);
+            if (isStalled(u, costTo, side, growForward)) { continue; }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double newCost = costTo + weights[e];
+                if (!side.isSettled(v) && newCost < side.dist(v)) {
+                    side.reach(v, newCost, u, e);
+                    double through = newCost + other.dist(v);
+                    if (through < mu) {
+                        mu = through;
+                        meet = v;
+                    }
+                }
+            }
+        }
+        return meet;
+    }
+
+    // Checks whether a higher ranked node the search has reached gives a cheaper way to
+    //  u than costTo, in which case u is not on a lowest cost path that climbs from the
+    //  start of the search, and its edges need not be relaxed.
+    private boolean isStalled(int u, double costTo, SearchWorkspace side, boolean forward) {
+        // edges into u from higher ranked nodes are stored reversed in the down graph
+        int[] offsets = forward ? downOffsets : upOffsets;
+        int[] targets = forward ? downTargets : upTargets;
+        double[] weights = forward ? downWeights : upWeights;
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            if (side.dist(targets[e]) + weights[e] < costTo) { return true; }
+        }
+        return false;
+    }
+
+    // Appends the original edges that hierarchy edge id stands for to path.
+    private Path<T> unpack(int id, Path<T> path) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = id;
+        while (size > 0) {
+            int next = stack[--size];
+            int e = original[next];
+            if (e >= 0) {
+                path = path.extend(graph.node(graph.target(e)), graph.weight(e));
+            } else {
+                if (size + 2 > stack.length) { stack = Arrays.copyOf(stack, stack.length * 2); }
+                // the first half is popped, and so appended, first
+                stack[size++] = secondHalf[next];
+                stack[size++] = firstHalf[next];
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Contractor holds the graph while it is being contracted. Contracting a node drops
+     *  its edges from the lists of its neighbours, so the lists of each node only hold
+     *  edges to nodes not yet contracted, and the lists of a contracted node are left
+     *  as they were when it was contracted. Edges stay in the edge arrays either way,
+     *  since shortcuts may refer to them.
+     */
+    private static final class Contractor {
+
+        // the graph being contracted
+        private final CsrGraph<?> graph;
+
+        // every edge ever added, by edge id
+        private int[] from;
+        private int[] to;
+        private double[] weight;
+        private int[] original;
+        private int[] firstHalf;
+        private int[] secondHalf;
+        private int edges;
+
+        // ids of the edges out of and into each node
+        private final int[][] out;
+        private final int[][] in;
+        private final int[] outSize;
+
+        // target and weight of each edge in out, kept beside it so that witness searches
+        //  read them without a lookup in the edge arrays
+        private final int[][] outTarget;
+        private final double[][] outWeight;
+        private final int[] inSize;
+
+        // number of contracted neighbours, rank once contracted, and depth of the
+        //  hierarchy below each node
+        private final int[] contractedNeighbours;
+        private final int[] rank;
+        private final int[] level;
+
+        // number of shortcuts added
+        private int shortcuts;
+
+        // the nodes a witness search still has to settle are those whose targetMark is
+        //  the current mark
+        private final int[] targetMark;
+        private int mark;
+
+        // scratch space of the witness searches
+        private final SearchWorkspace witness =
+                new SearchWorkspace(DijkstraPathFinder.QueueKind.BINARY_HEAP);
+
+        /**
+         * Loads every edge of graph except self loops, which no shortest path uses
+         * @param graph the graph to contract
+         */
+        private Contractor(CsrGraph<?> graph) {
+            this.graph = graph;
+            int n = graph.nodeCount();
+            int capacity = Math.max(16, graph.edgeCount() * 2);
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.weight = new double[capacity];
+            this.original = new int[capacity];
+            this.firstHalf = new int[capacity];
+            this.secondHalf = new int[capacity];
+            this.out = new int[n][];
+            this.in = new int[n][];
+            this.outSize = new int[n];
+            this.outTarget = new int[n][];
+            this.outWeight = new double[n][];
+            this.inSize = new int[n];
+            this.contractedNeighbours = new int[n];
+            this.rank = new int[n];
+            this.level = new int[n];
+            this.targetMark = new int[n];
+            int[] inDegree = new int[n];
+            for (int e = 0; e < graph.edgeCount(); e++) { inDegree[graph.target(e)]++; }
+            for (int u = 0; u < n; u++) {
+                int degree = Math.max(2, graph.endEdge(u) - graph.firstEdge(u));
+                out[u] = new int[degree];
+                outTarget[u] = new int[degree];
+                outWeight[u] = new double[degree];
+                in[u] = new int[Math.max(2, inDegree[u])];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    if (graph.target(e) != u) {
+                        addEdge(u, graph.target(e), graph.weight(e), e, -1, -1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Contracts every node, cheapest first, re-checking the cost of each node when
+         *  it comes up, since contracting its neighbours may have changed it
+         */
+        private void contractAll() {
+            int n = graph.nodeCount();
+            IndexedHeap order = new IndexedHeap(n, 4);
+            for (int v = 0; v < n; v++) { order.offer(v, priority(v)); }
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                double current = priority(v);
+                if (!order.isEmpty() && current > order.peekPriority()) {
+                    order.offer(v, current);
+                    continue;
+                }
+                contract(v, WITNESS_LIMIT, true);
+                rank[v] = next++;
+                for (int i = 0; i < inSize[v]; i++) {
+                    int u = from[in[v][i]];
+                    dropOut(u, in[v][i]);
+                    contractedNeighbours[u]++;
+                    level[u] = Math.max(level[u], level[v] + 1);
+                }
+                for (int i = 0; i < outSize[v]; i++) {
+                    int x = to[out[v][i]];
+                    inSize[x] = drop(in[x], inSize[x], out[v][i]);
+                    contractedNeighbours[x]++;
+                    level[x] = Math.max(level[x], level[v] + 1);
+                }
+            }
+        }
+
+        // Gives twice the edge difference of contracting v now, plus its contracted
+        //  neighbours and its depth.
+        private double priority(int v) {
+            int removed = inSize[v] + outSize[v];
+            return 2.0 * (contract(v, ESTIMATE_LIMIT, false) - removed) + contractedNeighbours[v]
+                    + level[v];
+        }
+
+        /**
+         * Finds the shortcuts that contracting v needs, and adds them if apply is set
+         * @param v the node to contract
+         * @param limit the most nodes each witness search settles
+         * @param apply whether to add the shortcuts, or only count them
+         * @return the number of shortcuts needed
+         */
+        private int contract(int v, int limit, boolean apply) {
+            int count = 0;
+            for (int i = 0; i < inSize[v]; i++) {
+                int a = in[v][i];
+                int u = from[a];
+                double maxOut = -1;
+                int targets = 0;
+                mark++;
+                for (int j = 0; j < outSize[v]; j++) {
+                    int b = out[v][j];
+                    if (to[b] != u) {
+                        maxOut = Math.max(maxOut, weight[b]);
+                        targetMark[to[b]] = mark;
+                        targets++;
+                    }
+                }
+                if (targets == 0) { continue; }
+                witnessSearch(u, v, weight[a] + maxOut, targets, limit);
+                for (int j = 0; j < outSize[v]; j++) {
+                    int b = out[v][j];
+                    int x = to[b];
+                    double cost = weight[a] + weight[b];
+                    // no shortcut is needed if a path avoiding v is as cheap
+                    if (x == u || witness.dist(x) <= cost) { continue; }
+                    count++;
+                    if (apply) { addShortcut(u, x, cost, a, b); }
+                }
+            }
+            return count;
+        }
+
+        // Runs Dijkstra's algorithm from u over the remaining graph without v, until it
+        //  settles all targets marked nodes, passes maxCost, or settles limit nodes.
+        private void witnessSearch(int u, int v, double maxCost, int targets, int limit) {
+            witness.begin(graph.nodeCount());
+            witness.reach(u, 0.0, -1, -1);
+            int settled = 0;
+            int w;
+            while ((w = witness.settleNext()) >= 0) {
+                double costTo = witness.dist(w);
+                if (costTo > maxCost || ++settled > limit) { break; }
+                if (targetMark[w] == mark && --targets == 0) { break; }
+                int[] heads = outTarget[w];
+                double[] weights = outWeight[w];
+                for (int i = 0; i < outSize[w]; i++) {
+                    int x = heads[i];
+                    double newCost = costTo + weights[i];
+                    if (x != v && !witness.isSettled(x) && newCost < witness.dist(x)) {
+                        witness.reach(x, newCost, w, -1);
+                    }
+                }
+            }
+        }
+
+        // Adds a shortcut from u to x made of edges a and b, replacing any dearer edge
+        //  from u to x.
+        private void addShortcut(int u, int x, double cost, int a, int b) {
+            for (int i = 0; i < outSize[u]; i++) {
+                int e = out[u][i];
+                if (to[e] == x) {
+                    if (weight[e] <= cost) { return; }
+                    dropOut(u, e);
+                    inSize[x] = drop(in[x], inSize[x], e);
+                    break;
+                }
+            }
+            addEdge(u, x, cost, -1, a, b);
+            shortcuts++;
+        }
+
+        // Adds an edge to the edge arrays and to the lists of its ends.
+        private void addEdge(int u, int x, double cost, int originalEdge, int a, int b) {
+            if (edges == from.length) {
+                int capacity = edges * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                original = Arrays.copyOf(original, capacity);
+                firstHalf = Arrays.copyOf(firstHalf, capacity);
+                secondHalf = Arrays.copyOf(secondHalf, capacity);
+            }
+            int id = edges++;
+            from[id] = u;
+            to[id] = x;
+            weight[id] = cost;
+            original[id] = originalEdge;
+            firstHalf[id] = a;
+            secondHalf[id] = b;
+            if (outSize[u] == out[u].length) {
+                out[u] = Arrays.copyOf(out[u], outSize[u] * 2);
+                outTarget[u] = Arrays.copyOf(outTarget[u], outSize[u] * 2);
+                outWeight[u] = Arrays.copyOf(outWeight[u], outSize[u] * 2);
+            }
+            out[u][outSize[u]] = id;
+            outTarget[u][outSize[u]] = x;
+            outWeight[u][outSize[u]] = cost;
+            outSize[u]++;
+            if (inSize[x] == in[x].length) { in[x] = Arrays.copyOf(in[x], inSize[x] * 2); }
+            in[x][inSize[x]++] = id;
+        }
+
+        // Removes edge id from the edges out of u.
+        private void dropOut(int u, int id) {
+            for (int i = 0; i < outSize[u]; i++) {
+                if (out[u][i] == id) {
+                    int last = --outSize[u];
+                    out[u][i] = out[u][last];
+                    outTarget[u][i] = outTarget[u][last];
+                    outWeight[u][i] = outWeight[u][last];
+                    return;
+                }
+            }
+        }
+
+        // Removes edge id from the first size entries of list, and gives the new size.
+        private static int drop(int[] list, int size, int id) {
+            for (int i = 0; i < size; i++) {
+                if (list[i] == id) {
+                    list[i] = list[size - 1];
+                    return size - 1;
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+
+/**
+ * DialPathFinder is Dijkstra's algorithm with Dial's bucket queue in place of a heap.
+ *  Costs are split into buckets of a fixed width no greater than the lightest edge, and
+ *  the search empties the buckets in order. Every node in the lowest nonempty bucket is
+ *  already final: any path still to be found costs at least one edge weight more than
+ *  the lowest queued cost, which puts it in a later bucket. Only a window of buckets one
+ *  heaviest edge wide can hold nodes at once, so the buckets are a circular array of
+ *  that many lists, and queueing or lowering a cost is an append.
+ *
+ *  Costs themselves are kept exactly; only the choice of bucket rounds them. Each
+ *  bucket is sorted by cost before it is settled, so nodes are settled in the same
+ *  order as with a heap, and every path is the one DijkstraPathFinder returns whenever
+ *  no two ways of reaching a node cost exactly the same. Edge weights must be positive,
+ *  and the ratio of the heaviest to the lightest edge should be small, as it is for
+ *  walking distances, since empty buckets are stepped over one at a time.
+ *
+ *  Each thread searches in its own buckets, so a finder may be used by many threads at
+ *  once.
+ */
+public class DialPathFinder<T> implements PathEngine<T> {
+
+    // Note: DialPathFinder is not ann ADT, hence does not have RI or AF
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // width of the cost range of each bucket
+    private final double width;
+
+    // number of buckets in the circular array
+    private final int bucketCount;
+
+    // the scratch space of the searches run by each thread
+    private final ThreadLocal<Buckets> buckets;
+
+    /**
+     * Constructs a finder over graph whose buckets are as wide as the lightest edge
+     * @param graph the graph to search
+     * @throws IllegalArgumentException if graph is null, or has an edge whose weight is
+     *         not positive and finite
+     */
+    public DialPathFinder(CsrGraph<T> graph) throws IllegalArgumentException {
+        this(graph, lightest(graph));
+    }
+
+    /**
+     * Constructs a finder over graph with buckets of the given width
+     * @param graph the graph to search
+     * @param width the width of the cost range of each bucket
+     * @throws IllegalArgumentException if graph is null, has an edge whose weight is not
+     *         positive and finite, or width is not positive or is greater than the weight
+     *         of the lightest edge
+     */
+    public DialPathFinder(CsrGraph<T> graph, double width) throws IllegalArgumentException {
+        if (!(width > 0 && width <= lightest(graph))) {
+            throw new IllegalArgumentException("Width must be positive and at most every weight.");
+        }
+        double heaviest = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            heaviest = Math.max(heaviest, graph.weight(e));
+        }
+        // one more bucket than a heaviest edge spans, and one to spare for rounding
+        double count = Math.floor(heaviest / width) + 3;
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Width is too small for the heaviest edge.");
+        }
+        this.graph = graph;
+        this.width = width;
+        this.bucketCount = (int) count;
+        this.buckets = ThreadLocal.withInitial(() -> new Buckets(bucketCount));
+    }
+
+    /**
+     * @return the width of the cost range of each bucket
+     */
+    public double width() {
+        return width;
+    }
+
+    /**
+     * @return the number of buckets in the circular array
+     */
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    @Override
+    public Path<T> shortestPath(int source, int target) {
+        if (source == target) { return new Path<>(graph.node(source)); }
+        Buckets b = buckets.get();
+        if (!search(source, target, b)) { return null; }
+        return DijkstraPathFinder.buildPath(graph, b.parent, b.parentEdge, source, target);
+    }
+
+    /**
+     * Finds the lowest cost of reaching every node from one node
+     * @param source the id of the node to start from
+     * @throws IllegalArgumentException if source is not an id in the graph
+     * @return an array whose entry v is the lowest cost of a path from source to the
+     * node with id v, or infinity if there is no such path
+     */
+    public double[] distances(int source) throws IllegalArgumentException {
+        if (source < 0 || source >= graph.nodeCount()) {
+            throw new IllegalArgumentException("Node id out of range.");
+        }
+        Buckets b = buckets.get();
+        search(source, -1, b);
+        double[] dist = new double[graph.nodeCount()];
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = b.reached[v] == b.generation ? b.dist[v] : Double.POSITIVE_INFINITY;
+        }
+        return dist;
+    }
+
+    /**
+     * Settles nodes from source in order of cost until target is settled or no node is
+     *  left, leaving the costs and parents in b
+     * @param target the id of the node to stop at, or -1 to settle every reachable node
+     * @return true iff target was settled
+     */
+    private boolean search(int source, int target, Buckets b) {
+        b.begin(graph.nodeCount());
+        b.reach(source, 0.0, -1, -1, 0);
+        for (long index = 0; b.queued > 0; index++) {
+            int slot = (int) (index % bucketCount);
+            int size = b.take(slot);
+            for (int i = 0; i < size; i++) {
+                int u = b.batch[i];
+                if (b.settled[u] == b.generation) { continue; } // lowered since it was queued
+                b.settled[u] = b.generation;
+                if (u == target) { return true; }
+                double costTo = b.dist[u];
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int v = graph.target(e);
+                    double newCost = costTo + graph.weight(e);
+                    if (b.settled[v] != b.generation
+                            && (b.reached[v] != b.generation || newCost < b.dist[v])) {
+                        // never the bucket being settled, even if rounding says so
+                        long bucket = Math.max((long) (newCost / width), index + 1);
+                        b.reach(v, newCost, u, e, (int) (bucket % bucketCount));
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Gives the weight of the lightest edge of graph, checking every weight is usable.
+    private static double lightest(CsrGraph<?> graph) throws IllegalArgumentException {
+        if (graph == null) { throw new IllegalArgumentException("Null graph received."); }
+        double lightest = Double.POSITIVE_INFINITY;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            double weight = graph.weight(e);
+            if (!(weight > 0 && weight < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException("Edge weights must be positive and finite.");
+            }
+            lightest = Math.min(lightest, weight);
+        }
+        // a graph without edges never queues past the first bucket
+        return lightest == Double.POSITIVE_INFINITY ? 1.0 : lightest;
+    }
+
+    /**
+     * The per-node arrays and the circular array of buckets of one thread's searches,
+     *  which, like a SearchWorkspace, mark the nodes each search touches with a new
+     *  generation number
+     */
+    private static final class Buckets {
+        private double[] dist = new double[0];
+        private int[] parent = new int[0];
+        private int[] parentEdge = new int[0];
+        private int[] reached = new int[0];
+        private int[] settled = new int[0];
+        private int generation;
+
+        // the node ids in each bucket, in the order they were queued
+        private final int[][] lists;
+        private final int[] sizes;
+
+        // number of ids in all buckets
+        private int queued;
+
+        // the bucket being settled, sorted by cost
+        private int[] batch = new int[16];
+
+        private Buckets(int count) {
+            lists = new int[count][];
+            sizes = new int[count];
+            for (int i = 0; i < count; i++) { lists[i] = new int[4]; }
+        }
+
+        private void begin(int n) {
+            if (dist.length != n) {
+                dist = new double[n];
+                parent = new int[n];
+                parentEdge = new int[n];
+                reached = new int[n];
+                settled = new int[n];
+                generation = 0;
+            }
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(reached, 0);
+                Arrays.fill(settled, 0);
+                generation = 0;
+            }
+            generation++;
+            // a search that stopped at its target may leave ids behind
+            Arrays.fill(sizes, 0);
+            queued = 0;
+        }
+
+        private void reach(int v, double cost, int from, int edge, int slot) {
+            if (sizes[slot] == lists[slot].length) {
+                lists[slot] = Arrays.copyOf(lists[slot], sizes[slot] * 2);
+            }
+            lists[slot][sizes[slot]++] = v;
+            queued++;
+            dist[v] = cost;
+            parent[v] = from;
+            parentEdge[v] = edge;
+            reached[v] = generation;
+        }
+
+        /**
+         * Moves the ids of a bucket into batch, sorted by cost, and empties the bucket
+         * @return the number of ids moved
+         */
+        private int take(int slot) {
+            int size = sizes[slot];
+            if (size > batch.length) { batch = new int[Math.max(size, batch.length * 2)]; }
+            int[] list = lists[slot];
+            // insertion sort: buckets are small, and mostly queued in order already
+            for (int i = 0; i < size; i++) {
+                int v = list[i];
+                double cost = dist[v];
+                int j = i;
+                while (j > 0 && dist[batch[j - 1]] > cost) {
+                    batch[j] = batch[j - 1];
+                    j--;
+                }
+                batch[j] = v;
+            }
+            sizes[slot] = 0;
+            queued -= size;
+            return size;
+        }
+    }
+}
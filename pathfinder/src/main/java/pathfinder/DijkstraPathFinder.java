@@ -1,11 +1,13 @@
 package pathfinder;
 
-import graph.DesignMap;
+import graph.CsrGraph;
+import graph.EdgeWeigher;
+import graph.GraphView;
+import graph.IndexedHeap;
+import graph.NodeIndex;
 import pathfinder.datastructures.Path;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
 
 /**
  * DijkstraPathFinder is a path finding algorithm that evaluates
@@ -17,53 +19,482 @@ public class DijkstraPathFinder<T, E> {
     // Note: DijkstraPathFinder is not ann ADT, hence does not have RI or AF
 
     /**
-     * Comparator for Path types, compares two Paths by the values of their cost
+     * The kinds of priority queue a CsrGraph search can use
      */
-    private class PathComparator implements Comparator<Path<T>> {
-        public int compare(Path<T> A, Path<T> B) {
-            return Double.compare(A.getCost(), B.getCost());
+    public enum QueueKind {
+        /** java.util.PriorityQueue, queueing a node again each time its cost is lowered */
+        PRIORITY_QUEUE(0),
+        /** an IndexedHeap with 2 children per node, lowering costs in place */
+        BINARY_HEAP(2),
+        /** an IndexedHeap with 4 children per node, lowering costs in place */
+        QUATERNARY_HEAP(4);
+
+        // number of children per heap node, or 0 for PRIORITY_QUEUE
+        private final int arity;
+
+        QueueKind(int arity) {
+            this.arity = arity;
+        }
+
+        /**
+         * @return the number of children per heap node, or 0 for PRIORITY_QUEUE
+         */
+        public int arity() {
+            return arity;
+        }
+    }
+
+    // gives the cost of each edge label in a DesignMap search
+    private final EdgeWeigher<? super E> weigher;
+
+    // the kind of queue CsrGraph searches use
+    private final QueueKind queueKind;
+
+    /**
+     * Constructs a path finder that reads edge costs from Number labels, or parses
+     *  the string form of any other label
+     */
+    public DijkstraPathFinder() {
+        this(EdgeWeigher.numeric());
+    }
+
+    /**
+     * Constructs a path finder that reads edge costs with the given weigher, and
+     *  searches CsrGraphs with a QUATERNARY_HEAP
+     * @param weigher gives the cost of each edge label
+     * @throws IllegalArgumentException if weigher is null
+     */
+    public DijkstraPathFinder(EdgeWeigher<? super E> weigher) throws IllegalArgumentException {
+        this(weigher, QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs a path finder that reads edge costs with the given weigher, and
+     *  searches CsrGraphs with the given kind of queue
+     * @param weigher gives the cost of each edge label
+     * @param queueKind the kind of queue CsrGraph searches use
+     * @throws IllegalArgumentException if weigher or queueKind is null
+     */
+    public DijkstraPathFinder(EdgeWeigher<? super E> weigher, QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (weigher == null) { throw new IllegalArgumentException("Null weigher received."); }
+        if (queueKind == null) { throw new IllegalArgumentException("Null queue kind received."); }
+        this.weigher = weigher;
+        this.queueKind = queueKind;
+    }
+
+    /**
+     * @return the kind of queue CsrGraph searches use
+     */
+    public QueueKind queueKind() {
+        return queueKind;
+    }
+
+    /**
+     * Creates scratch space for CsrGraph searches with this finder's kind of queue,
+     *  which can be passed to shortestPath to reuse it across searches
+     * @return a new empty SearchWorkspace
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(queueKind);
+    }
+
+    /**
+     * The state of one GraphView search. Nodes are numbered in the order they are first
+     *  reached, so distances and predecessors live in primitive arrays, and the queue is
+     *  an IndexedHeap that grows with them. The search is its own edge visitor, so
+     *  relaxing the edges of a settled node allocates nothing.
+     */
+    private static final class ViewSearch<T, E> implements BiConsumer<T, E> {
+        private final EdgeWeigher<? super E> weigher;
+        private final NodeIndex<T> ids = new NodeIndex<>();
+
+        // best known cost of reaching each node, and the node and edge cost it came from
+        private double[] dist = new double[16];
+        private int[] pred = new int[16];
+        private double[] predCost = new double[16];
+        private boolean[] known = new boolean[16];
+
+        // the reached nodes that are not settled yet, by their best known cost
+        private final IndexedHeap queue = new IndexedHeap(16);
+
+        // the node whose edges are being relaxed, and its cost
+        private int from;
+        private double costTo;
+
+        private ViewSearch(EdgeWeigher<? super E> weigher, T start) {
+            this.weigher = weigher;
+            reach(start, 0.0, -1, 0.0);
+        }
+
+        /**
+         * Relaxes the edge from the node being expanded to child
+         * @param child the destination of the edge
+         * @param label the label of the edge
+         */
+        @Override
+        public void accept(T child, E label) {
+            int id = ids.idOf(child);
+            if (id >= 0 && known[id]) { return; }
+            double segmentCost = weigher.weigh(label);
+            double newCost = costTo + segmentCost;
+            if (id < 0 || newCost < dist[id]) {
+                reach(child, newCost, from, segmentCost);
+            }
+        }
+
+        // Records a cheaper way of reaching node and queues it at that cost.
+        private void reach(T node, double cost, int parent, double edgeCost) {
+            int id = ids.intern(node);
+            if (id == dist.length) {
+                int capacity = 2 * id;
+                dist = Arrays.copyOf(dist, capacity);
+                pred = Arrays.copyOf(pred, capacity);
+                predCost = Arrays.copyOf(predCost, capacity);
+                known = Arrays.copyOf(known, capacity);
+                queue.ensureCapacity(capacity);
+            }
+            dist[id] = cost;
+            pred[id] = parent;
+            predCost[id] = edgeCost;
+            queue.offer(id, cost);
+        }
+
+        // Settles the cheapest queued node, and makes it the node being expanded.
+        private void settleNext() {
+            from = queue.poll();
+            costTo = dist[from];
+            known[from] = true;
+        }
+
+        // Walks the predecessors back from dest and builds the matching Path.
+        private Path<T> path(int dest) {
+            int hops = 0;
+            for (int v = dest; pred[v] >= 0; v = pred[v]) { hops++; }
+            int[] nodes = new int[hops];
+            for (int v = dest; pred[v] >= 0; v = pred[v]) { nodes[--hops] = v; }
+            Path<T> path = new Path<>(ids.node(0));
+            for (int v: nodes) { path = path.extend(ids.node(v), predCost[v]); }
+            return path;
         }
     }
 
     /**
      * Finds and returns the lowest cost path (if there is one) between the given
-     *  start node and end node, returns null if there isn't a path
-     * @param map the DesignMap that contains all the nodes and edges to be evaluated
+     *  start node and end node, returns null if there isn't a path. Only the distance
+     *  and predecessor of each reached node are kept during the search, in arrays
+     *  indexed by the order nodes are first reached, and the Path is built once the
+     *  destination is reached, so no Path is copied per edge and nothing is boxed.
+     * @param map the graph that contains all the nodes and edges to be evaluated
      * @param start the start node of the path
      * @param dest the end node of the path
      * @spec.requires map, start, and dest are not null, and edges in map are non-negative
      */
-    public Path<T> DijkstraPath(DesignMap<T, E> map, T start, T dest) {
-        // Each element is a path from start to a given node.
-        // A path's “priority” in the queue is the total cost of that path.
-        PriorityQueue<Path<T>> pq = new PriorityQueue<>(new PathComparator());
-        Set<T> known = new HashSet<>();
-        Path<T> initPath = new Path<>(start);
-        initPath.extend(start, 0.0);
-        pq.add(initPath);
-        Path<T> paths = initPath;
-        if (start.equals(dest)) { return paths; }
-        while (!pq.isEmpty()) {
-            // process the next lowest-costing path in queue
-            Path<T> currPath = pq.remove();
-            // DEST of this path
-            T edgeTo = currPath.getEnd();
+    public Path<T> DijkstraPath(GraphView<T, E> map, T start, T dest) {
+        if (start.equals(dest)) { return new Path<>(start); }
+        ViewSearch<T, E> search = new ViewSearch<>(weigher, start);
+        while (!search.queue.isEmpty()) {
+            search.settleNext();
+            T node = search.ids.node(search.from);
             // SP found
-            if (edgeTo.equals(dest)) {
-                paths = currPath;
-                break;
-            } else if (!known.contains(edgeTo)) {
-                for (T child : map.listChildren(edgeTo)) {
-                    if (!known.contains(child)) {
-                        String minCost = map.getLabels(edgeTo, child).get(0).toString();
-                        double newCost = Double.parseDouble(minCost);
-                        Path<T> newPath = currPath.extend(child, newCost);
-                        pq.add(newPath);
-                    }
+            if (node.equals(dest)) { return search.path(search.from); }
+            map.forEachEdge(node, search);
+        }
+        return null;
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the given
+     *  start node and end node of a frozen graph, returns null if there isn't a path.
+     *  Only the distance and the edge used to reach each node are kept during the
+     *  search, and the Path is built once the destination is reached.
+     * @param graph the CsrGraph that contains all the nodes and edges to be evaluated
+     * @param start the start node of the path
+     * @param dest the end node of the path
+     * @spec.requires graph, start, and dest are not null, and graph contains start and dest
+     */
+    public Path<T> DijkstraPath(CsrGraph<T> graph, T start, T dest) {
+        return shortestPath(graph, graph.idOf(start), graph.idOf(dest));
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the nodes with
+     *  the given ids in a frozen graph, returns null if there isn't a path. The search
+     *  runs entirely on ids, and nodes are only looked up to build the returned Path.
+     * @param graph the CsrGraph that contains all the nodes and edges to be evaluated
+     * @param source the id of the start node of the path
+     * @param target the id of the end node of the path
+     * @spec.requires graph is not null, and source and target are ids in graph
+     */
+    public Path<T> shortestPath(CsrGraph<T> graph, int source, int target) {
+        return shortestPath(graph, source, target, newWorkspace());
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the nodes with
+     *  the given ids in a frozen graph, returns null if there isn't a path. The search
+     *  reuses the arrays and queue of workspace, and adds its queue operations to the
+     *  counts of workspace.
+     * @param graph the CsrGraph that contains all the nodes and edges to be evaluated
+     * @param source the id of the start node of the path
+     * @param target the id of the end node of the path
+     * @param workspace the scratch space to search in
+     * @spec.requires graph and workspace are not null, source and target are ids in
+     *                graph, and no other search is using workspace
+     * @spec.modifies workspace
+     */
+    public Path<T> shortestPath(CsrGraph<T> graph, int source, int target,
+                                SearchWorkspace workspace) {
+        if (source == target) { return new Path<>(graph.node(source)); }
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            if (u == target) {
+                return buildPath(graph, workspace.parents(), workspace.parentEdges(),
+                        source, target);
+            }
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double newCost = costTo + graph.weight(e);
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, u, e);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) from one node to the
+     *  nearest of a set of nodes in a frozen graph, returns null if none of them can be
+     *  reached. One search settles nodes from source and stops at the first target it
+     *  settles, instead of searching once per target.
+     * @param graph the CsrGraph that contains all the nodes and edges to be evaluated
+     * @param source the id of the start node of the path
+     * @param targets the ids of the nodes the path may end at, in any order and possibly
+     *                repeated
+     * @param workspace the scratch space to search in
+     * @spec.requires graph, targets and workspace are not null, source and every target
+     *                are ids in graph, and no other search is using workspace
+     * @spec.modifies workspace
+     * @return a lowest cost path from source to a node in targets, which ends at the
+     * nearest target, or null if there is none
+     */
+    public Path<T> nearestPath(CsrGraph<T> graph, int source, int[] targets,
+                               SearchWorkspace workspace) {
+        int[] sorted = targets.clone();
+        Arrays.sort(sorted);
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            if (Arrays.binarySearch(sorted, u) >= 0) {
+                return buildPath(graph, workspace.parents(), workspace.parentEdges(),
+                        source, u);
+            }
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double newCost = costTo + graph.weight(e);
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, u, e);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the lowest cost of reaching every node of a frozen graph from one node
+     * @param graph the CsrGraph that contains all the nodes and edges to be evaluated
+     * @param source the id of the node to start from
+     * @param workspace the scratch space to search in
+     * @spec.requires graph and workspace are not null, source is an id in graph, and
+     *                no other search is using workspace
+     * @spec.modifies workspace
+     * @return an array whose entry v is the lowest cost of a path from source to the
+     * node with id v, or infinity if there is no such path
+     */
+    public double[] distances(CsrGraph<T> graph, int source, SearchWorkspace workspace) {
+        searchAll(graph, source, workspace);
+        double[] output = new double[graph.nodeCount()];
+        for (int v = 0; v < output.length; v++) { output[v] = workspace.dist(v); }
+        return output;
+    }
+
+    /**
+     * Finds the lowest cost path from one node to every node of a frozen graph. The
+     *  path the tree gives to each node is the same path shortestPath returns, since
+     *  the search settles nodes in the same order up to that node.
+     * @param graph the CsrGraph that contains all the nodes and edges to be evaluated
+     * @param source the id of the node to start from
+     * @param workspace the scratch space to search in
+     * @spec.requires graph and workspace are not null, source is an id in graph, and
+     *                no other search is using workspace
+     * @spec.modifies workspace
+     * @return the shortest path tree of graph rooted at source
+     */
+    public ShortestPathTree<T> shortestPathTree(CsrGraph<T> graph, int source,
+                                                SearchWorkspace workspace) {
+        searchAll(graph, source, workspace);
+        int n = graph.nodeCount();
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        for (int v = 0; v < n; v++) {
+            dist[v] = workspace.dist(v);
+            boolean reached = v != source && dist[v] < Double.POSITIVE_INFINITY;
+            parent[v] = reached ? workspace.parents()[v] : -1;
+            parentEdge[v] = reached ? workspace.parentEdges()[v] : -1;
+        }
+        return new ShortestPathTree<>(graph, source, dist, parent, parentEdge);
+    }
+
+    /**
+     * Finds every node of a frozen graph within a cost budget of one node, and the edges
+     *  the budget runs out along. The search stops at the budget, never queues a node
+     *  beyond it, and builds no Path.
+     * @param graph the CsrGraph that contains all the nodes and edges to be evaluated
+     * @param source the id of the node to start from
+     * @param budget the most a reached node may cost
+     * @param workspace the scratch space to search in
+     * @throws IllegalArgumentException if budget is negative or not a number
+     * @spec.requires graph and workspace are not null, source is an id in graph, and
+     *                no other search is using workspace
+     * @spec.modifies workspace
+     * @return the nodes within budget of source, nearest first, and the frontier edges
+     */
+    public Isochrone<T> isochrone(CsrGraph<T> graph, int source, double budget,
+                                  SearchWorkspace workspace) throws IllegalArgumentException {
+        if (!(budget >= 0)) {
+            throw new IllegalArgumentException("Budget must not be negative.");
+        }
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, -1, -1);
+        int[] nodes = new int[16];
+        double[] costs = new double[16];
+        int size = 0;
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                costs = Arrays.copyOf(costs, size * 2);
+            }
+            double costTo = workspace.dist(u);
+            nodes[size] = u;
+            costs[size++] = costTo;
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double newCost = costTo + graph.weight(e);
+                if (newCost <= budget && !workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, u, e);
+                }
+            }
+        }
+        // every edge out of the area ends at a node the search never settled
+        int cuts = 0;
+        for (int i = 0; i < size; i++) {
+            for (int e = graph.firstEdge(nodes[i]); e < graph.endEdge(nodes[i]); e++) {
+                if (!workspace.isSettled(graph.target(e))) { cuts++; }
+            }
+        }
+        int[] cutEdges = new int[cuts];
+        int[] cutStarts = new int[cuts];
+        double[] cutReach = new double[cuts];
+        cuts = 0;
+        for (int i = 0; i < size; i++) {
+            for (int e = graph.firstEdge(nodes[i]); e < graph.endEdge(nodes[i]); e++) {
+                if (!workspace.isSettled(graph.target(e))) {
+                    cutEdges[cuts] = e;
+                    cutStarts[cuts] = nodes[i];
+                    cutReach[cuts++] = budget - costs[i];
                 }
-                known.add(edgeTo);
             }
         }
-        return paths.equals(initPath) ? null : paths;
+        return new Isochrone<>(graph, source, budget, Arrays.copyOf(nodes, size),
+                Arrays.copyOf(costs, size), cutEdges, cutStarts, cutReach);
+    }
+
+    // Runs Dijkstra's algorithm from source until every reachable node is settled.
+    private void searchAll(CsrGraph<T> graph, int source, SearchWorkspace workspace) {
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double newCost = costTo + graph.weight(e);
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, u, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the parent pointers back from target and builds the matching Path
+     * @param graph the graph that was searched
+     * @param parent the node each settled node was reached from
+     * @param parentEdge the edge each settled node was reached by
+     * @param source the id of the start node
+     * @param target the id of the end node
+     * @spec.requires target was reached from source in the search that filled parent
+     *                and parentEdge
+     */
+    static <T> Path<T> buildPath(CsrGraph<T> graph, int[] parent, int[] parentEdge,
+                                 int source, int target) {
+        return pathAlong(graph, source, edgesTo(parent, parentEdge, source, target));
+    }
+
+    /**
+     * Walks the parent pointers back from target and lists the edges walked
+     * @param parent the node each settled node was reached from
+     * @param parentEdge the edge each settled node was reached by
+     * @param source the id of the start node
+     * @param target the id of the end node
+     * @spec.requires target was reached from source in the search that filled parent
+     *                and parentEdge
+     * @return the ids of the edges from source to target, in the order they are taken
+     */
+    static int[] edgesTo(int[] parent, int[] parentEdge, int source, int target) {
+        int length = 0;
+        for (int v = target; v != source; v = parent[v]) { length++; }
+        int[] edges = new int[length];
+        for (int v = target, i = length - 1; v != source; v = parent[v], i--) {
+            edges[i] = parentEdge[v];
+        }
+        return edges;
+    }
+
+    /**
+     * Builds the Path from source along the given edges
+     * @param graph the graph the edges are in
+     * @param source the id of the start node
+     * @param edges the ids of the edges to take, in order
+     * @spec.requires each edge starts at the node the edge before it ends at, and the
+     *                first starts at source
+     * @return the Path from source along edges
+     */
+    static <T> Path<T> pathAlong(CsrGraph<T> graph, int source, int[] edges) {
+        Path<T> path = new Path<>(graph.node(source));
+        for (int e: edges) {
+            path = path.extend(graph.node(graph.target(e)), graph.weight(e));
+        }
+        return path;
+    }
+
+    /**
+     * Adds up the weights of the given edges, in the same order Path adds them up
+     * @param graph the graph the edges are in
+     * @param edges the ids of the edges
+     * @return the total weight of edges
+     */
+    static double costAlong(CsrGraph<?> graph, int[] edges) {
+        double total = 0;
+        for (int e: edges) { total += graph.weight(e); }
+        return total;
     }
 }
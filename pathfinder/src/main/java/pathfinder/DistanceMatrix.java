@@ -0,0 +1,188 @@
+package pathfinder;
+
+import graph.CsrGraph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * DistanceMatrix computes the lowest cost between every source and every target of two
+ *  sets of nodes of a frozen graph, such as all dorms and all lecture halls. It runs one
+ *  Dijkstra search per source, which stops once every target is settled, and only
+ *  records costs, so no Path is ever built.
+ *
+ *  The searches are split over the threads of a ForkJoinPool. Each thread reuses one
+ *  SearchWorkspace for all the searches it runs, and each search writes only its own
+ *  row of the result, so the threads share nothing but read-only data. A DistanceMatrix
+ *  may be used by many threads at once.
+ */
+public final class DistanceMatrix<T> {
+
+    // Note: DistanceMatrix is not ann ADT, hence does not have RI or AF
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // the kind of queue searches use
+    private final DijkstraPathFinder.QueueKind queueKind;
+
+    // the scratch space of the searches run by each thread
+    private final ThreadLocal<SearchWorkspace> workspaces;
+
+    /**
+     * Constructs a DistanceMatrix over graph, whose searches use a QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @throws IllegalArgumentException if graph is null
+     */
+    public DistanceMatrix(CsrGraph<T> graph) throws IllegalArgumentException {
+        this(graph, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs a DistanceMatrix over graph
+     * @param graph the graph to search
+     * @param queueKind the kind of queue searches use
+     * @throws IllegalArgumentException if graph or queueKind is null
+     */
+    public DistanceMatrix(CsrGraph<T> graph, DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        this.graph = graph;
+        this.queueKind = queueKind;
+        this.workspaces = ThreadLocal.withInitial(() -> new SearchWorkspace(queueKind));
+    }
+
+    /**
+     * @return the kind of queue searches use
+     */
+    public DijkstraPathFinder.QueueKind queueKind() {
+        return queueKind;
+    }
+
+    /**
+     * Computes the lowest cost from every source to every target on the common pool
+     * @param sources the ids of the start nodes
+     * @param targets the ids of the end nodes
+     * @throws IllegalArgumentException if sources or targets is null, or holds an id
+     *         that is not in the graph
+     * @return a matrix whose entry [i][j] is the lowest cost of a path from sources[i]
+     * to targets[j], or infinity if there is no such path
+     */
+    public double[][] compute(int[] sources, int[] targets) throws IllegalArgumentException {
+        return compute(sources, targets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the lowest cost from every source to every target on the given pool
+     * @param sources the ids of the start nodes
+     * @param targets the ids of the end nodes
+     * @param pool the pool to run the searches on
+     * @throws IllegalArgumentException if any argument is null, or sources or targets
+     *         holds an id that is not in the graph
+     * @return a matrix whose entry [i][j] is the lowest cost of a path from sources[i]
+     * to targets[j], or infinity if there is no such path
+     */
+    public double[][] compute(int[] sources, int[] targets, ForkJoinPool pool)
+            throws IllegalArgumentException {
+        if (sources == null || targets == null || pool == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        checkIds(sources);
+        checkIds(targets);
+        // which nodes are targets, and how many distinct targets each search waits for
+        boolean[] isTarget = new boolean[graph.nodeCount()];
+        int distinct = 0;
+        for (int v: targets) {
+            if (!isTarget[v]) {
+                isTarget[v] = true;
+                distinct++;
+            }
+        }
+        double[][] result = new double[sources.length][];
+        pool.invoke(new Rows(sources, targets, isTarget, distinct, result, 0, sources.length));
+        return result;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from source until every target is settled, and gives
+     *  the cost of reaching each target
+     * @param source the id of the start node
+     * @param targets the ids of the end nodes
+     * @param isTarget isTarget[v] is true iff v is in targets
+     * @param distinct the number of distinct ids in targets
+     * @return an array whose entry j is the lowest cost of reaching targets[j]
+     */
+    private double[] row(int source, int[] targets, boolean[] isTarget, int distinct) {
+        SearchWorkspace workspace = workspaces.get();
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, -1, -1);
+        int remaining = distinct;
+        int u;
+        while (remaining > 0 && (u = workspace.settleNext()) >= 0) {
+            if (isTarget[u]) { remaining--; }
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double newCost = costTo + graph.weight(e);
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, u, e);
+                }
+            }
+        }
+        double[] row = new double[targets.length];
+        for (int j = 0; j < targets.length; j++) { row[j] = workspace.dist(targets[j]); }
+        return row;
+    }
+
+    // Throws IllegalArgumentException if ids holds an id that is not in the graph.
+    private void checkIds(int[] ids) throws IllegalArgumentException {
+        for (int v: ids) {
+            if (v < 0 || v >= graph.nodeCount()) {
+                throw new IllegalArgumentException("Node id out of range.");
+            }
+        }
+    }
+
+    /**
+     * The task of filling rows [from, to) of a result, which splits in half until it
+     *  is a single row
+     */
+    private final class Rows extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sources;
+        private final int[] targets;
+        private final boolean[] isTarget;
+        private final int distinct;
+        private final double[][] result;
+        private final int from;
+        private final int to;
+
+        private Rows(int[] sources, int[] targets, boolean[] isTarget, int distinct,
+                     double[][] result, int from, int to) {
+            this.sources = sources;
+            this.targets = targets;
+            this.isTarget = isTarget;
+            this.distinct = distinct;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    result[i] = row(sources[i], targets, isTarget, distinct);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Rows(sources, targets, isTarget, distinct, result, from, mid),
+                    new Rows(sources, targets, isTarget, distinct, result, mid, to));
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package pathfinder;
+
+import graph.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * HubLabels answers "how far is it from s to t" without searching. Each node v keeps
+ *  two labels: the hubs it can reach, with the cost of getting to each, and the hubs
+ *  that can reach it, with the cost of getting from each. The labels are built so that
+ *  for every pair s, t with a path, some hub on a lowest cost path is in both the
+ *  forward label of s and the backward label of t. The distance is then the lowest sum
+ *  over the hubs the two labels share, which one merge of two sorted arrays finds.
+ *
+ *  The labels are computed by pruned landmark labeling: the nodes are taken in order of
+ *  importance, and each one runs Dijkstra's algorithm forward and backward, adding
+ *  itself to the label of every node it settles, except where the labels so far
+ *  already give a path as cheap, and not searching past those nodes. The fewer hubs
+ *  the labels need, the better the order; contraction hierarchy ranks give far
+ *  smaller labels than node degrees on road-like graphs.
+ */
+public class HubLabels<T> {
+
+    // Note: HubLabels is not ann ADT, hence does not have RI or AF
+
+    /**
+     * The node orders labels can be computed from
+     */
+    public enum Ordering {
+        /** nodes by decreasing contraction hierarchy rank */
+        CONTRACTION_HIERARCHY,
+        /** nodes by decreasing number of edges in and out, the order of the original
+         *  pruned landmark labeling */
+        DEGREE
+    }
+
+    // hubs[i] = the id of the i-th hub; labels name hubs by this index, so they are
+    //  sorted by it
+    private final int[] hubs;
+
+    // forward labels of each node in compressed sparse row form: the index of each hub
+    //  the node reaches, and the cost of getting there
+    private final int[] forwardOffsets;
+    private final int[] forwardHubs;
+    private final double[] forwardCosts;
+
+    // backward labels, in the same form: the hubs that reach the node, and their costs
+    private final int[] backwardOffsets;
+    private final int[] backwardHubs;
+    private final double[] backwardCosts;
+
+    // time spent computing the order and the labels
+    private final long preprocessingNanos;
+
+    /**
+     * Computes hub labels for graph from the given kind of node order
+     * @param graph the graph whose distances to give
+     * @param ordering how to order the nodes
+     * @throws IllegalArgumentException if graph or ordering is null
+     */
+    public HubLabels(CsrGraph<T> graph, Ordering ordering) throws IllegalArgumentException {
+        this(System.nanoTime(), graph, order(graph, ordering));
+    }
+
+    /**
+     * Computes hub labels for graph from the given node order
+     * @param graph the graph whose distances to give
+     * @param order the id of every node of graph once, most important first
+     * @throws IllegalArgumentException if graph or order is null, or order is not an
+     *         order of the nodes of graph
+     */
+    public HubLabels(CsrGraph<T> graph, int[] order) throws IllegalArgumentException {
+        this(System.nanoTime(), graph, checkOrder(graph, order));
+    }
+
+    // Computes the labels in the given order, counting preprocessing from start.
+    private HubLabels(long start, CsrGraph<T> graph, int[] order) {
+        this.hubs = order;
+        int n = graph.nodeCount();
+        CsrGraph<T> reverse = graph.transpose();
+        Labels forward = new Labels(n);
+        Labels backward = new Labels(n);
+        SearchWorkspace workspace = new SearchWorkspace(DijkstraPathFinder.QueueKind.BINARY_HEAP);
+        // cost of each hub in the label of the node being processed, by hub index
+        double[] known = new double[n];
+        Arrays.fill(known, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            int hub = order[i];
+            // hub reaches v: label v backward unless a hub of both already covers them
+            prunedSearch(graph, hub, i, forward.get(hub), backward, workspace, known);
+            // v reaches hub: label v forward unless a hub of both already covers them
+            prunedSearch(reverse, hub, i, backward.get(hub), forward, workspace, known);
+        }
+        this.forwardOffsets = forward.offsets();
+        this.forwardHubs = forward.hubs(forwardOffsets);
+        this.forwardCosts = forward.costs(forwardOffsets);
+        this.backwardOffsets = backward.offsets();
+        this.backwardHubs = backward.hubs(backwardOffsets);
+        this.backwardCosts = backward.costs(backwardOffsets);
+        this.preprocessingNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Gives the lowest cost of a path between the nodes with the given ids. The cost is
+     *  the same as that of the lowest cost path, up to rounding.
+     * @param source the id of the start node
+     * @param target the id of the end node
+     * @throws IllegalArgumentException if source or target is not an id in the graph
+     * @return the lowest cost of a path from source to target, or infinity if there is
+     * no path
+     */
+    public double distance(int source, int target) throws IllegalArgumentException {
+        if (source < 0 || source >= hubs.length || target < 0 || target >= hubs.length) {
+            throw new IllegalArgumentException("Node id out of range.");
+        }
+        return merge(forwardHubs, forwardCosts, forwardOffsets[source],
+                forwardOffsets[source + 1], backwardHubs, backwardCosts,
+                backwardOffsets[target], backwardOffsets[target + 1]);
+    }
+
+    /**
+     * @return the average number of hubs in the forward and backward labels of a node
+     */
+    public double averageLabelSize() {
+        return hubs.length == 0 ? 0
+                : (double) (forwardHubs.length + backwardHubs.length) / hubs.length;
+    }
+
+    /**
+     * @return the largest number of hubs in the forward and backward labels of a node
+     */
+    public int maxLabelSize() {
+        int max = 0;
+        for (int v = 0; v < hubs.length; v++) {
+            max = Math.max(max, forwardOffsets[v + 1] - forwardOffsets[v]
+                    + backwardOffsets[v + 1] - backwardOffsets[v]);
+        }
+        return max;
+    }
+
+    /**
+     * @return the bytes of the label arrays
+     */
+    public long labelBytes() {
+        long entries = (long) forwardHubs.length + backwardHubs.length;
+        return entries * (Integer.BYTES + Double.BYTES) + 2L * Integer.BYTES * (hubs.length + 1);
+    }
+
+    /**
+     * @return the time spent computing the order and the labels, in nanoseconds
+     */
+    public long preprocessingNanos() {
+        return preprocessingNanos;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm over g from hub, adding hub to the labels of every node
+     *  it settles whose distance from hub the labels do not already give
+     * @param g the graph to search, which is reversed to label nodes forward
+     * @param hub the id of the hub
+     * @param index the index of the hub in the order
+     * @param hubLabel the label of hub on the side facing the search, which together
+     *                 with the labels of the other side gives the distances known so far
+     * @param labels the labels the search adds hub to
+     * @param workspace the scratch space to search in
+     * @param known all infinity; filled from hubLabel during the search and cleared
+     *              after it
+     */
+    private static void prunedSearch(CsrGraph<?> g, int hub, int index, Label hubLabel,
+                                     Labels labels, SearchWorkspace workspace,
+                                     double[] known) {
+        for (int j = 0; j < hubLabel.size; j++) { known[hubLabel.hubs[j]] = hubLabel.costs[j]; }
+        workspace.begin(g.nodeCount());
+        workspace.reach(hub, 0.0, -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            double costTo = workspace.dist(u);
+            Label label = labels.get(u);
+            boolean covered = false;
+            for (int j = 0; j < label.size && !covered; j++) {
+                covered = known[label.hubs[j]] + label.costs[j] <= costTo;
+            }
+            if (covered) { continue; } // and so is every node past u
+            label.add(index, costTo);
+            for (int e = g.firstEdge(u); e < g.endEdge(u); e++) {
+                int v = g.target(e);
+                double newCost = costTo + g.weight(e);
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, u, e);
+                }
+            }
+        }
+        for (int j = 0; j < hubLabel.size; j++) {
+            known[hubLabel.hubs[j]] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    // Gives the lowest sum of costs over the hubs two sorted label ranges share.
+    private static double merge(int[] aHubs, double[] aCosts, int a, int aEnd,
+                                int[] bHubs, double[] bCosts, int b, int bEnd) {
+        double best = Double.POSITIVE_INFINITY;
+        while (a < aEnd && b < bEnd) {
+            if (aHubs[a] < bHubs[b]) {
+                a++;
+            } else if (aHubs[a] > bHubs[b]) {
+                b++;
+            } else {
+                best = Math.min(best, aCosts[a++] + bCosts[b++]);
+            }
+        }
+        return best;
+    }
+
+    // Computes a node order of the given kind.
+    private static int[] order(CsrGraph<?> graph, Ordering ordering)
+            throws IllegalArgumentException {
+        if (graph == null || ordering == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        int n = graph.nodeCount();
+        int[] key = new int[n];
+        if (ordering == Ordering.CONTRACTION_HIERARCHY) {
+            ContractionHierarchy<?> hierarchy = new ContractionHierarchy<>(graph);
+            for (int v = 0; v < n; v++) { key[v] = hierarchy.rankOf(v); }
+        } else {
+            for (int v = 0; v < n; v++) { key[v] += graph.endEdge(v) - graph.firstEdge(v); }
+            for (int e = 0; e < graph.edgeCount(); e++) { key[graph.target(e)]++; }
+        }
+        // sort by decreasing key, then by id, through longs that pack both
+        long[] packed = new long[n];
+        for (int v = 0; v < n; v++) { packed[v] = ((long) -key[v] << 32) | v; }
+        Arrays.sort(packed);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) { order[i] = (int) packed[i]; }
+        return order;
+    }
+
+    // Checks that order holds every node id of graph exactly once, and gives a copy.
+    private static int[] checkOrder(CsrGraph<?> graph, int[] order)
+            throws IllegalArgumentException {
+        if (graph == null || order == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        if (order.length != graph.nodeCount()) {
+            throw new IllegalArgumentException("Order does not hold every node.");
+        }
+        boolean[] seen = new boolean[order.length];
+        for (int v: order) {
+            if (v < 0 || v >= order.length || seen[v]) {
+                throw new IllegalArgumentException("Order does not hold every node once.");
+            }
+            seen[v] = true;
+        }
+        return order.clone();
+    }
+
+    /**
+     * The label of one node while the labels are computed, in the order its hubs are
+     *  added
+     */
+    private static final class Label {
+        private int[] hubs = new int[4];
+        private double[] costs = new double[4];
+        private int size;
+
+        private void add(int hub, double cost) {
+            if (size == hubs.length) {
+                hubs = Arrays.copyOf(hubs, size * 2);
+                costs = Arrays.copyOf(costs, size * 2);
+            }
+            hubs[size] = hub;
+            costs[size] = cost;
+            size++;
+        }
+    }
+
+    /**
+     * The labels of every node on one side while they are computed
+     */
+    private static final class Labels {
+        private final Label[] lists;
+
+        private Labels(int n) {
+            lists = new Label[n];
+            for (int v = 0; v < n; v++) { lists[v] = new Label(); }
+        }
+
+        private Label get(int v) {
+            return lists[v];
+        }
+
+        private int[] offsets() {
+            int[] offsets = new int[lists.length + 1];
+            for (int v = 0; v < lists.length; v++) {
+                offsets[v + 1] = offsets[v] + lists[v].size;
+            }
+            return offsets;
+        }
+
+        private int[] hubs(int[] offsets) {
+            int[] all = new int[offsets[lists.length]];
+            for (int v = 0; v < lists.length; v++) {
+                System.arraycopy(lists[v].hubs, 0, all, offsets[v], lists[v].size);
+            }
+            return all;
+        }
+
+        private double[] costs(int[] offsets) {
+            double[] all = new double[offsets[lists.length]];
+            for (int v = 0; v < lists.length; v++) {
+                System.arraycopy(lists[v].costs, 0, all, offsets[v], lists[v].size);
+            }
+            return all;
+        }
+    }
+}
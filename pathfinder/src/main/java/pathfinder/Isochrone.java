@@ -0,0 +1,200 @@
+package pathfinder;
+
+import graph.CsrGraph;
+
+/**
+ * Isochrone represents everything within a cost budget of one node of a frozen graph:
+ *  the nodes that can be reached for at most the budget, nearest first, with the cost
+ *  of reaching each, and the frontier, the edges that lead from a reached node to a node
+ *  beyond the budget, each with how far along it the budget runs out. The reached nodes
+ *  and the reached parts of the frontier edges together trace the area within the
+ *  budget.
+ */
+public final class Isochrone<T> {
+
+    // true when running expensive rep invariant tests, false when running only cheap
+    //  tests
+    private static final boolean DEBUG = false;
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // the id of the node the costs are from
+    private final int source;
+
+    // the most a reached node may cost
+    private final double budget;
+
+    // the ids of the reached nodes, and the cost of reaching each, nearest first
+    private final int[] nodes;
+    private final double[] costs;
+
+    // the frontier: the id of each edge, the id of the reached node it starts at, and
+    //  the part of its weight the budget covers
+    private final int[] cutEdges;
+    private final int[] cutStarts;
+    private final double[] cutReach;
+
+    // Representation Invariant:
+    //  graph != null, 0 <= source < graph.nodeCount(), and budget >= 0
+    //  nodes and costs have the same length, at least 1; nodes[0] = source, costs[0] = 0,
+    //   costs is non-decreasing, and every cost is at most budget
+    //  cutEdges, cutStarts and cutReach have the same length; each cutEdges[i] is an edge
+    //   of graph from cutStarts[i], a node in nodes, to a node not in nodes, and
+    //   0 <= cutReach[i] < its weight
+    //
+    // Abstraction Function:
+    //  AF(this) = the nodes of graph within budget of node source, which are nodes[i] at
+    //   cost costs[i], and the frontier edges cutEdges[i], of which the first cutReach[i]
+    //   of their weight is within budget
+
+    /**
+     * Constructs an isochrone from the arrays of a finished search, which it takes
+     *  ownership of
+     * @param graph the graph searched
+     * @param source the id of the node the costs are from
+     * @param budget the most a reached node may cost
+     * @param nodes the ids of the reached nodes, nearest first
+     * @param costs the cost of reaching each node in nodes
+     * @param cutEdges the ids of the frontier edges
+     * @param cutStarts the id of the node each frontier edge starts at
+     * @param cutReach the part of the weight of each frontier edge within budget
+     * @spec.requires the arguments satisfy the representation invariant
+     */
+    Isochrone(CsrGraph<T> graph, int source, double budget, int[] nodes, double[] costs,
+              int[] cutEdges, int[] cutStarts, double[] cutReach) {
+        this.graph = graph;
+        this.source = source;
+        this.budget = budget;
+        this.nodes = nodes;
+        this.costs = costs;
+        this.cutEdges = cutEdges;
+        this.cutStarts = cutStarts;
+        this.cutReach = cutReach;
+        checkRep();
+    }
+
+    /**
+     * @return the id of the node the costs are from
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * @return the most a reached node may cost
+     */
+    public double budget() {
+        return budget;
+    }
+
+    /**
+     * @return the number of reached nodes, including the source
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * @param i the index of a reached node, where 0 is the nearest
+     * @throws IndexOutOfBoundsException if i is not in [0, size())
+     * @return the id of the i-th nearest reached node
+     */
+    public int id(int i) {
+        return nodes[i];
+    }
+
+    /**
+     * @param i the index of a reached node, where 0 is the nearest
+     * @throws IndexOutOfBoundsException if i is not in [0, size())
+     * @return the i-th nearest reached node
+     */
+    public T node(int i) {
+        return graph.node(nodes[i]);
+    }
+
+    /**
+     * @param i the index of a reached node, where 0 is the nearest
+     * @throws IndexOutOfBoundsException if i is not in [0, size())
+     * @return the cost of reaching the i-th nearest reached node
+     */
+    public double distance(int i) {
+        return costs[i];
+    }
+
+    /**
+     * @return the number of frontier edges
+     */
+    public int frontierSize() {
+        return cutEdges.length;
+    }
+
+    /**
+     * @param i the index of a frontier edge
+     * @throws IndexOutOfBoundsException if i is not in [0, frontierSize())
+     * @return the id of the i-th frontier edge
+     */
+    public int frontierEdge(int i) {
+        return cutEdges[i];
+    }
+
+    /**
+     * @param i the index of a frontier edge
+     * @throws IndexOutOfBoundsException if i is not in [0, frontierSize())
+     * @return the reached node the i-th frontier edge starts at
+     */
+    public T frontierStart(int i) {
+        return graph.node(cutStarts[i]);
+    }
+
+    /**
+     * @param i the index of a frontier edge
+     * @throws IndexOutOfBoundsException if i is not in [0, frontierSize())
+     * @return the node beyond the budget the i-th frontier edge ends at
+     */
+    public T frontierEnd(int i) {
+        return graph.node(graph.target(cutEdges[i]));
+    }
+
+    /**
+     * @param i the index of a frontier edge
+     * @throws IndexOutOfBoundsException if i is not in [0, frontierSize())
+     * @return how far along the i-th frontier edge the budget runs out, which is less
+     * than its weight
+     */
+    public double frontierReach(int i) {
+        return cutReach[i];
+    }
+
+    /**
+     * @param i the index of a frontier edge
+     * @throws IndexOutOfBoundsException if i is not in [0, frontierSize())
+     * @return the weight of the i-th frontier edge
+     */
+    public double frontierWeight(int i) {
+        return graph.weight(cutEdges[i]);
+    }
+
+    /**
+     * Checks that the representation invariant holds
+     */
+    private void checkRep() {
+        assert graph != null: "graph is null";
+        assert source >= 0 && source < graph.nodeCount(): "source out of range";
+        assert budget >= 0: "budget is negative";
+        assert nodes.length == costs.length && nodes.length > 0: "nodes do not match costs";
+        assert nodes[0] == source && costs[0] == 0: "source is not nearest";
+        assert cutEdges.length == cutStarts.length && cutEdges.length == cutReach.length
+                : "frontier arrays do not match";
+        if (!DEBUG) { return; }
+        for (int i = 1; i < costs.length; i++) {
+            assert costs[i - 1] <= costs[i] && costs[i] <= budget: "costs out of order";
+        }
+        for (int i = 0; i < cutEdges.length; i++) {
+            assert cutEdges[i] >= graph.firstEdge(cutStarts[i])
+                    && cutEdges[i] < graph.endEdge(cutStarts[i]): "edge has another start";
+            assert cutReach[i] >= 0 && cutReach[i] < graph.weight(cutEdges[i])
+                    : "reach out of range";
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * KShortestPathFinder finds the k lowest cost loopless paths between two nodes of a
+ *  frozen graph, with Yen's algorithm. After the lowest cost path, each next path is
+ *  found by trying every node of the last path found as a spur node: the new path
+ *  follows the last path up to the spur node (its root), then takes the lowest cost
+ *  detour from there to the destination that leaves the root by an edge no path found
+ *  so far leaves it by, and does not revisit a node of the root. The cheapest detour
+ *  over all spur nodes and all earlier rounds is the next path.
+ *
+ *  The detours are searched on the graph itself: the edges and nodes a spur search may
+ *  not use are marked in a mask, which is cleared after the search, and every search
+ *  of a query runs in the same SearchWorkspace. One search backward from the
+ *  destination gives each node's distance to it with nothing blocked; blocking only
+ *  makes paths dearer, so those distances are exact A* estimates for every spur
+ *  search, which then settles little more than the detour it returns.
+ */
+public class KShortestPathFinder<T> {
+
+    // Note: KShortestPathFinder is not ann ADT, hence does not have RI or AF
+
+    /**
+     * A path waiting to be picked, as the ids of its edges; equal iff the edges are
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        private final int[] edges;
+        private final double cost;
+
+        private Candidate(int[] edges, double cost) {
+            this.edges = edges;
+            this.cost = cost;
+        }
+
+        // cheapest first, then fewest edges, then by edge ids, so the order is total
+        @Override
+        public int compareTo(Candidate other) {
+            int byCost = Double.compare(cost, other.cost);
+            if (byCost != 0) { return byCost; }
+            int byLength = Integer.compare(edges.length, other.edges.length);
+            return byLength != 0 ? byLength : Arrays.compare(edges, other.edges);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Candidate && Arrays.equals(edges, ((Candidate) obj).edges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+    }
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // graph with every edge reversed, searched from the destination for the estimates
+    private final CsrGraph<T> reverse;
+
+    // the kind of queue searches use
+    private final DijkstraPathFinder.QueueKind queueKind;
+
+    // runs the backward search for the estimates
+    private final DijkstraPathFinder<T, Double> finder;
+
+    /**
+     * Constructs a k shortest paths finder over graph, with a QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @throws IllegalArgumentException if graph is null
+     */
+    public KShortestPathFinder(CsrGraph<T> graph) throws IllegalArgumentException {
+        this(graph, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs a k shortest paths finder over graph
+     * @param graph the graph to search
+     * @param queueKind the kind of queue searches use
+     * @throws IllegalArgumentException if graph or queueKind is null
+     */
+    public KShortestPathFinder(CsrGraph<T> graph, DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        this.queueKind = queueKind;
+        this.finder = new DijkstraPathFinder<>(Double::doubleValue, queueKind);
+    }
+
+    /**
+     * Creates scratch space for the searches of a query, which can be passed to
+     *  shortestPaths to reuse it across queries
+     * @return a new empty SearchWorkspace
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(queueKind);
+    }
+
+    /**
+     * Finds the k lowest cost loopless paths between the nodes with the given ids
+     * @param source the id of the start node of the paths
+     * @param target the id of the end node of the paths
+     * @param k the most paths to find
+     * @throws IllegalArgumentException if k is not positive, or source or target is not
+     *         an id in the graph
+     * @return up to k distinct loopless paths from source to target, cheapest first;
+     * fewer if there are fewer such paths, and none if there is no path
+     */
+    public List<Path<T>> shortestPaths(int source, int target, int k)
+            throws IllegalArgumentException {
+        return shortestPaths(source, target, k, newWorkspace());
+    }
+
+    /**
+     * Finds the k lowest cost loopless paths between the nodes with the given ids. Every
+     *  search of the query reuses the arrays and queue of workspace, and adds its counts
+     *  to the counts of workspace.
+     * @param source the id of the start node of the paths
+     * @param target the id of the end node of the paths
+     * @param k the most paths to find
+     * @param workspace the scratch space to search in
+     * @throws IllegalArgumentException if workspace is null, k is not positive, or source
+     *         or target is not an id in the graph
+     * @spec.requires no other search is using workspace
+     * @spec.modifies workspace
+     * @return up to k distinct loopless paths from source to target, cheapest first;
+     * fewer if there are fewer such paths, and none if there is no path
+     */
+    public List<Path<T>> shortestPaths(int source, int target, int k,
+                                       SearchWorkspace workspace)
+            throws IllegalArgumentException {
+        if (workspace == null) { throw new IllegalArgumentException("Null workspace received."); }
+        if (k <= 0) { throw new IllegalArgumentException("k must be positive."); }
+        int n = graph.nodeCount();
+        if (source < 0 || source >= n || target < 0 || target >= n) {
+            throw new IllegalArgumentException("Node id out of range.");
+        }
+        List<Path<T>> paths = new ArrayList<>();
+        if (source == target) {
+            paths.add(new Path<>(graph.node(source)));
+            return paths;
+        }
+        double[] estimate = finder.distances(reverse, target, workspace);
+        if (estimate[source] == Double.POSITIVE_INFINITY) { return paths; }
+        boolean[] blockedEdge = new boolean[graph.edgeCount()];
+        boolean[] blockedNode = new boolean[n];
+        int[] first = spurSearch(source, target, estimate, blockedEdge, blockedNode,
+                workspace);
+
+        List<int[]> accepted = new ArrayList<>();
+        accepted.add(first);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<Candidate> seen = new HashSet<>();
+        seen.add(new Candidate(first, DijkstraPathFinder.costAlong(graph, first)));
+        int[] blockedEdges = new int[k];
+        while (accepted.size() < k) {
+            int[] last = accepted.get(accepted.size() - 1);
+            int spurNode = source;
+            for (int i = 0; i < last.length; i++) {
+                // no detour may leave the root the way an accepted path with this root does
+                int blocked = 0;
+                for (int[] path: accepted) {
+                    if (path.length > i && Arrays.equals(path, 0, i, last, 0, i)
+                            && !blockedEdge[path[i]]) {
+                        blockedEdge[path[i]] = true;
+                        blockedEdges[blocked++] = path[i];
+                    }
+                }
+                int[] spur = spurSearch(spurNode, target, estimate, blockedEdge,
+                        blockedNode, workspace);
+                if (spur != null) {
+                    int[] edges = Arrays.copyOf(last, i + spur.length);
+                    System.arraycopy(spur, 0, edges, i, spur.length);
+                    Candidate candidate =
+                            new Candidate(edges, DijkstraPathFinder.costAlong(graph, edges));
+                    if (seen.add(candidate)) { candidates.add(candidate); }
+                }
+                for (int j = 0; j < blocked; j++) { blockedEdge[blockedEdges[j]] = false; }
+                // no detour may revisit a node of the root; the mask is cleared below
+                blockedNode[spurNode] = true;
+                spurNode = graph.target(last[i]);
+            }
+            Arrays.fill(blockedNode, false);
+            if (candidates.isEmpty()) { break; }
+            accepted.add(candidates.poll().edges);
+        }
+        for (int[] edges: accepted) {
+            paths.add(DijkstraPathFinder.pathAlong(graph, source, edges));
+        }
+        return paths;
+    }
+
+    /**
+     * Runs A* from source to target without using blocked edges or nodes
+     * @param estimate the cost from each node to target with nothing blocked
+     * @return the ids of the edges of the lowest cost path, or null if there is none
+     */
+    private int[] spurSearch(int source, int target, double[] estimate,
+                             boolean[] blockedEdge, boolean[] blockedNode,
+                             SearchWorkspace workspace) {
+        if (estimate[source] == Double.POSITIVE_INFINITY) { return null; }
+        workspace.begin(graph.nodeCount());
+        workspace.reach(source, 0.0, estimate[source], -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            if (u == target) {
+                return DijkstraPathFinder.edgesTo(workspace.parents(),
+                        workspace.parentEdges(), source, target);
+            }
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                // nodes that cannot reach target are never worth queueing
+                if (blockedEdge[e] || blockedNode[v]
+                        || estimate[v] == Double.POSITIVE_INFINITY) { continue; }
+                double newCost = costTo + graph.weight(e);
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    workspace.reach(v, newCost, newCost + estimate[v], u, e);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,241 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * LandmarkPathFinder is an A* search over a frozen graph whose estimates come from
+ *  landmarks and the triangle inequality (ALT). When it is built it picks a few
+ *  landmark nodes, and runs Dijkstra's algorithm from and to each of them to store
+ *  the distance between every node and every landmark. For any landmark L, the cost
+ *  of a path from v to t is then at least d(L, t) - d(L, v) and at least
+ *  d(v, L) - d(t, L), and the largest of these bounds is the estimate of v.
+ *
+ *  Landmarks on the edge of the graph give the tightest bounds, since the shortest
+ *  paths to them run along many other shortest paths. The estimate is consistent, so
+ *  a search never has to settle a node twice.
+ */
+public class LandmarkPathFinder<T> implements PathEngine<T> {
+
+    // Note: LandmarkPathFinder is not ann ADT, hence does not have RI or AF
+
+    /**
+     * The ways of picking landmarks
+     */
+    public enum Strategy {
+        /** nodes picked uniformly at random */
+        RANDOM,
+        /** each landmark is the node farthest from every landmark picked before it,
+         *  which places the landmarks around the edge of the graph */
+        FARTHEST
+    }
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // ids of the landmark nodes
+    private final int[] landmarks;
+
+    // fromLandmark[i][v] = cost of the cheapest path from landmarks[i] to v
+    private final double[][] fromLandmark;
+
+    // toLandmark[i][v] = cost of the cheapest path from v to landmarks[i]
+    private final double[][] toLandmark;
+
+    // the kind of queue searches use
+    private final DijkstraPathFinder.QueueKind queueKind;
+
+    // time spent picking landmarks and computing their distances
+    private final long preprocessingNanos;
+
+    /**
+     * Constructs a landmark search over graph that picks its landmarks with the given
+     *  strategy, and uses a QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @param count the number of landmarks to pick
+     * @param strategy how to pick the landmarks
+     * @throws IllegalArgumentException if graph or strategy is null, or count is negative
+     */
+    public LandmarkPathFinder(CsrGraph<T> graph, int count, Strategy strategy)
+            throws IllegalArgumentException {
+        this(graph, count, strategy, 0L, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs a landmark search over graph. If graph has fewer than count nodes,
+     *  every node is a landmark.
+     * @param graph the graph to search
+     * @param count the number of landmarks to pick
+     * @param strategy how to pick the landmarks
+     * @param seed the seed of the random choices the strategy makes
+     * @param queueKind the kind of queue searches use
+     * @throws IllegalArgumentException if graph, strategy, or queueKind is null, or
+     *         count is negative
+     */
+    public LandmarkPathFinder(CsrGraph<T> graph, int count, Strategy strategy, long seed,
+                              DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || strategy == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        if (count < 0) { throw new IllegalArgumentException("Negative count received."); }
+        long start = System.nanoTime();
+        this.graph = graph;
+        this.queueKind = queueKind;
+        int k = Math.min(count, graph.nodeCount());
+        this.landmarks = new int[k];
+        this.fromLandmark = new double[k][];
+        this.toLandmark = new double[k][];
+
+        DijkstraPathFinder<T, Double> finder = new DijkstraPathFinder<>(Double::doubleValue,
+                queueKind);
+        SearchWorkspace workspace = finder.newWorkspace();
+        CsrGraph<T> reverse = graph.transpose();
+        Random random = new Random(seed);
+        // lowest distance from any landmark picked so far to each node
+        double[] nearest = new double[graph.nodeCount()];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < k; i++) {
+            int landmark;
+            if (strategy == Strategy.RANDOM) {
+                landmark = pickRandom(random, i);
+            } else if (i == 0) {
+                // start from the node farthest from a random one
+                landmark = farthest(finder.distances(graph, random.nextInt(graph.nodeCount()),
+                        workspace));
+            } else {
+                landmark = farthest(nearest);
+            }
+            landmarks[i] = landmark;
+            fromLandmark[i] = finder.distances(graph, landmark, workspace);
+            toLandmark[i] = finder.distances(reverse, landmark, workspace);
+            for (int v = 0; v < nearest.length; v++) {
+                nearest[v] = Math.min(nearest[v], fromLandmark[i][v]);
+            }
+        }
+        this.preprocessingNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return the ids of the landmarks, in the order they were picked
+     */
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * @return the time spent picking the landmarks and computing their distances, in
+     * nanoseconds
+     */
+    public long preprocessingNanos() {
+        return preprocessingNanos;
+    }
+
+    /**
+     * @return the bytes of the distance tables of one landmark
+     */
+    public long bytesPerLandmark() {
+        return 2L * Double.BYTES * graph.nodeCount();
+    }
+
+    /**
+     * Gives a lower bound on the cost of any path between two nodes
+     * @param v the id of the first node
+     * @param target the id of the second node
+     * @return a lower bound on the cost of the cheapest path from v to target, which is
+     * infinity if the landmarks show there is no such path
+     */
+    public double lowerBound(int v, int target) {
+        double best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] from = fromLandmark[i];
+            double[] to = toLandmark[i];
+            // d(L, t) <= d(L, v) + d(v, t)
+            if (from[v] < Double.POSITIVE_INFINITY) {
+                best = Math.max(best, from[target] - from[v]);
+            }
+            // d(v, L) <= d(v, t) + d(t, L)
+            if (to[target] < Double.POSITIVE_INFINITY) {
+                best = Math.max(best, to[v] - to[target]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Creates scratch space for searches of this finder, which can be passed to
+     *  shortestPath to reuse it across searches
+     * @return a new empty SearchWorkspace
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(queueKind);
+    }
+
+    @Override
+    public Path<T> shortestPath(int source, int target) {
+        return shortestPath(source, target, newWorkspace());
+    }
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the nodes with
+     *  the given ids, returns null if there isn't a path. The search reuses the arrays
+     *  and queue of workspace, and adds its counts to the counts of workspace.
+     * @param source the id of the start node of the path
+     * @param target the id of the end node of the path
+     * @param workspace the scratch space to search in
+     * @spec.requires workspace is not null, source and target are ids in the graph,
+     *                and no other search is using workspace
+     * @spec.modifies workspace
+     * @return the lowest cost path from source to target, or null if there is none
+     */
+    public Path<T> shortestPath(int source, int target, SearchWorkspace workspace) {
+        if (source == target) { return new Path<>(graph.node(source)); }
+        workspace.begin(graph.nodeCount());
+        double estimate = lowerBound(source, target);
+        if (estimate == Double.POSITIVE_INFINITY) { return null; }
+        workspace.reach(source, 0.0, estimate, -1, -1);
+        int u;
+        while ((u = workspace.settleNext()) >= 0) {
+            if (u == target) {
+                return DijkstraPathFinder.buildPath(graph, workspace.parents(),
+                        workspace.parentEdges(), source, target);
+            }
+            double costTo = workspace.dist(u);
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                double newCost = costTo + graph.weight(e);
+                if (!workspace.isSettled(v) && newCost < workspace.dist(v)) {
+                    double bound = lowerBound(v, target);
+                    // skip nodes the landmarks show cannot reach target
+                    if (bound < Double.POSITIVE_INFINITY) {
+                        workspace.reach(v, newCost, newCost + bound, u, e);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // Picks a node that is not yet a landmark, uniformly at random.
+    private int pickRandom(Random random, int picked) {
+        while (true) {
+            int v = random.nextInt(graph.nodeCount());
+            boolean taken = false;
+            for (int i = 0; i < picked; i++) { taken |= landmarks[i] == v; }
+            if (!taken) { return v; }
+        }
+    }
+
+    // Gives the node with the largest distance, counting unreachable nodes as farthest,
+    //  and breaking ties by the lowest id. Landmarks already picked have distance 0.
+    private static int farthest(double[] distance) {
+        int best = 0;
+        for (int v = 1; v < distance.length; v++) {
+            if (distance[v] > distance[best]) { best = v; }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,54 @@
+package pathfinder;
+
+import java.util.function.Supplier;
+
+/**
+ * Lazy holds a value that is expensive to build and may never be needed. The value is
+ *  built on the first call to get(), exactly once even when several threads ask for
+ *  it at the same time, and every thread sees it fully built.
+ */
+final class Lazy<V> implements Supplier<V> {
+
+    // Representation Invariant:
+    //  factory != null, and
+    //  value is only ever set once, from null to the non-null result of factory.get()
+    //
+    // Abstraction Function:
+    //  AF(this) = the value factory builds, which is built already iff value != null
+
+    // builds the value
+    private final Supplier<? extends V> factory;
+
+    // the value, or null until it is built; volatile so that a thread that reads it
+    //  without the lock also sees everything factory wrote while building it
+    private volatile V value;
+
+    /**
+     * Constructs a holder that will build its value with factory
+     * @param factory builds the value, and never returns null
+     * @throws IllegalArgumentException if factory is null
+     */
+    Lazy(Supplier<? extends V> factory) throws IllegalArgumentException {
+        if (factory == null) { throw new IllegalArgumentException("Null factory received."); }
+        this.factory = factory;
+    }
+
+    /**
+     * Gives the value, building it first if this is the first call
+     * @return the value
+     */
+    @Override
+    public V get() {
+        V result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = factory.get();
+                    value = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -14,6 +14,8 @@ package pathfinder;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /*
@@ -71,4 +73,123 @@ public interface ModelAPI {
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 
+    /**
+     * Finds the shortest path, by distance, from the provided building to whichever of the
+     * provided buildings is nearest to it, with one search rather than one per building.
+     *
+     * @param startShortName The short name of the building at the beginning of the path.
+     * @param endShortNames  The short names of the buildings the path may end at.
+     * @return A shortest path from {@code startShortName} to the nearest building in
+     * {@code endShortNames}, or {@literal null} if none can be reached or there are none.
+     * @throws IllegalArgumentException if {@code startShortName} or {@code endShortNames}
+     *                                  is {@literal null}, or any of them is not a valid
+     *                                  short name of a building in this campus map.
+     */
+    public Path<Point> findShortestPathToNearest(String startShortName,
+                                                 Collection<String> endShortNames);
+
+    /**
+     * Finds the shortest path, by distance, from the provided building to the nearest
+     * entrance of another building.
+     *
+     * @param startShortName The short name of the building at the beginning of the path.
+     * @param building       A building in {@link #buildingEntrances()}, or the short name
+     *                       of one of its entrances.
+     * @return A shortest path from {@code startShortName} to the nearest entrance of
+     * {@code building}, or {@literal null} if none can be reached.
+     * @throws IllegalArgumentException if {@code startShortName} or {@code building} is
+     *                                  {@literal null}, {@code startShortName} is not a
+     *                                  valid short name of a building in this campus map,
+     *                                  or {@code building} is not a building in it.
+     */
+    public Path<Point> findShortestPathToBuilding(String startShortName, String building);
+
+    /**
+     * @return A mapping from every building to the short names of its entrances, in the
+     * order they are listed. A building is named by the short name of its entrances up to
+     * any parenthesized suffix, so "BAG" and "BAG (NE)" are both entrances of "BAG".
+     */
+    public Map<String, List<String>> buildingEntrances();
+
+    /**
+     * Finds everything within a walking budget of the provided building: the buildings
+     * whose shortest path from it is at most the budget long, with their distances, and
+     * the path segments along which the budget runs out. No path is built.
+     *
+     * @param shortName The short name of the building to start from.
+     * @param budget    The longest distance to walk.
+     * @return The buildings within {@code budget} of {@code shortName}, nearest first,
+     * including {@code shortName} itself, and the isochrone of the campus paths.
+     * @throws IllegalArgumentException if {@code shortName} is {@literal null} or not a
+     *                                  valid short name of a building in this campus
+     *                                  map, or {@code budget} is negative or not a number.
+     */
+    public Reachability reachableWithin(String shortName, double budget);
+
+    /**
+     * Finds the length of the shortest path between the two provided buildings, without
+     * building the path.
+     *
+     * @param startShortName The short name of the building at the beginning of the path.
+     * @param endShortName   The short name of the building at the end of the path.
+     * @return The cost of the shortest path between {@code startShortName} and
+     * {@code endShortName}, or {@link Double#POSITIVE_INFINITY} if none exists.
+     * @throws IllegalArgumentException if {@code startShortName} or {@code endShortName}
+     *                                  are {@literal null}, or not valid short names of
+     *                                  buildings in this campus map.
+     */
+    public double findShortestDistance(String startShortName, String endShortName);
+
+    /**
+     * Finds the length of the shortest path from each of the start buildings to each of
+     * the end buildings, without building any path.
+     *
+     * @param startShortNames The short names of the buildings the paths begin at.
+     * @param endShortNames   The short names of the buildings the paths end at.
+     * @return A matrix whose entry {@code [i][j]} is the cost of the shortest path from
+     * the i-th start building to the j-th end building, or
+     * {@link Double#POSITIVE_INFINITY} if none exists.
+     * @throws IllegalArgumentException if either list is {@literal null}, or holds a
+     *                                  {@literal null} or a name that is not a valid
+     *                                  short name of a building in this campus map.
+     */
+    public double[][] findShortestDistances(List<String> startShortNames,
+                                            List<String> endShortNames);
+
+    /**
+     * Finds the k shortest paths, by distance, between the two provided buildings that
+     * visit no point twice.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param endShortName   The short name of the building at the end of the paths.
+     * @param k              The most paths to find.
+     * @return Up to {@code k} distinct paths between {@code startShortName} and
+     * {@code endShortName}, shortest first; fewer if there are fewer such paths.
+     * @throws IllegalArgumentException if {@code startShortName} or {@code endShortName}
+     *                                  are {@literal null}, or not valid short names of
+     *                                  buildings in this campus map, or {@code k} is not
+     *                                  positive.
+     */
+    public List<Path<Point>> findShortestPaths(String startShortName, String endShortName,
+                                               int k);
+
+    /**
+     * Finds the shortest path between the two provided buildings and up to {@code k - 1}
+     * alternatives to it that are meaningfully different: each shares at most part of its
+     * length with the shortest path and the other alternatives, is not much longer than
+     * the shortest path, and takes no needless detour.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param endShortName   The short name of the building at the end of the paths.
+     * @param k              The most paths to find.
+     * @return The shortest path, then the alternatives found, shortest first; empty if no
+     * path exists.
+     * @throws IllegalArgumentException if {@code startShortName} or {@code endShortName}
+     *                                  are {@literal null}, or not valid short names of
+     *                                  buildings in this campus map, or {@code k} is not
+     *                                  positive.
+     */
+    public List<Path<Point>> findAlternativePaths(String startShortName, String endShortName,
+                                                  int k);
+
 }
@@ -0,0 +1,23 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+
+/**
+ * PathEngine is a shortest path search bound to one frozen graph, which finds paths
+ *  between nodes given by their ids in that graph. Engines may keep whatever they
+ *  precompute from the graph, so a CampusMap can switch between them without
+ *  changing how it answers queries.
+ */
+@FunctionalInterface
+public interface PathEngine<T> {
+
+    /**
+     * Finds and returns the lowest cost path (if there is one) between the nodes with
+     *  the given ids, returns null if there isn't a path
+     * @param source the id of the start node of the path
+     * @param target the id of the end node of the path
+     * @spec.requires source and target are ids in the graph this engine searches
+     * @return the lowest cost path from source to target, or null if there is none
+     */
+    Path<T> shortestPath(int source, int target);
+}
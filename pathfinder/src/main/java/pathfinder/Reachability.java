@@ -0,0 +1,74 @@
+package pathfinder;
+
+import pathfinder.datastructures.Point;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reachability represents what can be reached on campus within a walking budget of
+ *  one building: the buildings within the budget with the distance to each, nearest
+ *  first, and the isochrone of the campus paths, which traces the area within the
+ *  budget.
+ */
+public final class Reachability {
+
+    // short name -> distance of every building within the budget, nearest first
+    private final Map<String, Double> buildings;
+
+    // the path points and frontier edges within the budget
+    private final Isochrone<Point> isochrone;
+
+    // Representation Invariant:
+    //  buildings != null, isochrone != null, and no key or value of buildings is null
+    //  every distance in buildings is at most isochrone.budget(), and the distances are
+    //   non-decreasing in iteration order
+    //
+    // Abstraction Function:
+    //  AF(this) = the buildings within isochrone.budget() of a start building, each at
+    //   its distance in buildings, and the area within the budget given by isochrone
+
+    /**
+     * Constructs a Reachability, taking ownership of buildings
+     * @param buildings short name -> distance of every building within the budget,
+     *                  nearest first
+     * @param isochrone the path points and frontier edges within the budget
+     * @spec.requires the arguments satisfy the representation invariant
+     */
+    Reachability(LinkedHashMap<String, Double> buildings, Isochrone<Point> isochrone) {
+        this.buildings = Collections.unmodifiableMap(buildings);
+        this.isochrone = isochrone;
+        checkRep();
+    }
+
+    /**
+     * @return an unmodifiable map from the short name of every building within the
+     * budget to its distance, iterating nearest first
+     */
+    public Map<String, Double> buildings() {
+        return buildings;
+    }
+
+    /**
+     * @return the path points within the budget and the frontier edges along which it
+     * runs out
+     */
+    public Isochrone<Point> isochrone() {
+        return isochrone;
+    }
+
+    /**
+     * Checks that the representation invariant holds
+     */
+    private void checkRep() {
+        assert buildings != null && isochrone != null: "null field";
+        double last = 0;
+        for (Map.Entry<String, Double> entry: buildings.entrySet()) {
+            assert entry.getKey() != null && entry.getValue() != null: "null entry";
+            assert last <= entry.getValue() && entry.getValue() <= isochrone.budget()
+                    : "distance out of order";
+            last = entry.getValue();
+        }
+    }
+}
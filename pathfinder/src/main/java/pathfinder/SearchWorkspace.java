@@ -0,0 +1,261 @@
+package pathfinder;
+
+import graph.IndexedHeap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * SearchWorkspace holds the per-node arrays and the queue of a shortest path search
+ *  over node ids, so that many searches in a row can reuse them instead of allocating
+ *  new ones each time. Each search marks the nodes it touches with a new generation
+ *  number, so starting a search costs nothing however large the graph is.
+ *
+ *  A workspace counts the queue operations and settled nodes of the searches run in
+ *  it. A workspace may only be used by one search at a time.
+ */
+public final class SearchWorkspace {
+
+    // Note: SearchWorkspace is scratch space for the path finders, and not an ADT,
+    //  hence does not have RI or AF
+
+    /**
+     * A node id waiting in a PriorityQueue, with the priority it was queued at
+     */
+    private static final class QueueEntry {
+        private final int node;
+        private final double priority;
+
+        private QueueEntry(int node, double priority) {
+            this.node = node;
+            this.priority = priority;
+        }
+    }
+
+    // the kind of queue searches in this workspace use
+    private final DijkstraPathFinder.QueueKind kind;
+
+    // best known cost of reaching each node, valid where reached[v] == generation
+    private double[] dist = new double[0];
+
+    // the node and edge each reached node was reached by
+    private int[] parent = new int[0];
+    private int[] parentEdge = new int[0];
+
+    // generation of the last search that reached / settled each node
+    private int[] reached = new int[0];
+    private int[] settled = new int[0];
+
+    // number of the search running now
+    private int generation;
+
+    // the queue: an indexed heap for the heap kinds, or a PriorityQueue with lazy
+    //  deletion, where a node may be queued again each time its cost is lowered
+    private IndexedHeap heap;
+    private final PriorityQueue<QueueEntry> lazy;
+
+    // queue operation and settled node counts since the last resetCounts()
+    private long inserts;
+    private long decreases;
+    private long polls;
+    private long settledNodes;
+
+    /**
+     * Constructs an empty workspace whose searches use the given kind of queue
+     * @param kind the kind of queue to use
+     * @throws IllegalArgumentException if kind is null
+     */
+    public SearchWorkspace(DijkstraPathFinder.QueueKind kind) throws IllegalArgumentException {
+        if (kind == null) { throw new IllegalArgumentException("Null queue kind received."); }
+        this.kind = kind;
+        this.lazy = kind.arity() == 0
+                ? new PriorityQueue<>(Comparator.comparingDouble(e -> e.priority)) : null;
+    }
+
+    /**
+     * @return the kind of queue searches in this workspace use
+     */
+    public DijkstraPathFinder.QueueKind kind() {
+        return kind;
+    }
+
+    /**
+     * @return the number of nodes added to the queue since the counts were last reset
+     */
+    public long queueInserts() {
+        return inserts;
+    }
+
+    /**
+     * @return the number of queued costs lowered in place since the counts were last
+     * reset, which is always 0 for a PriorityQueue
+     */
+    public long queueDecreases() {
+        return decreases;
+    }
+
+    /**
+     * @return the number of entries removed from the queue since the counts were last
+     * reset, including stale entries skipped by a PriorityQueue
+     */
+    public long queuePolls() {
+        return polls;
+    }
+
+    /**
+     * @return the number of nodes settled since the counts were last reset
+     */
+    public long settledNodes() {
+        return settledNodes;
+    }
+
+    /**
+     * Sets every count back to zero
+     * @spec.modifies this
+     */
+    public void resetCounts() {
+        inserts = 0;
+        decreases = 0;
+        polls = 0;
+        settledNodes = 0;
+    }
+
+    /**
+     * Starts a new search over a graph with n nodes, forgetting the last one
+     * @param n the number of nodes in the graph to search
+     */
+    void begin(int n) {
+        if (dist.length != n) {
+            dist = new double[n];
+            parent = new int[n];
+            parentEdge = new int[n];
+            reached = new int[n];
+            settled = new int[n];
+            generation = 0;
+            if (lazy == null) { heap = new IndexedHeap(n, kind.arity()); }
+        }
+        if (generation == Integer.MAX_VALUE) {
+            // only wrap around after clearing every old mark
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            generation = 0;
+        }
+        generation++;
+        if (lazy == null) { heap.clear(); } else { lazy.clear(); }
+    }
+
+    /**
+     * @param v a node id
+     * @return the best known cost of reaching v in this search, or infinity if it has
+     * not been reached
+     */
+    double dist(int v) {
+        return reached[v] == generation ? dist[v] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param v a node id
+     * @return true iff v has been settled in this search
+     */
+    boolean isSettled(int v) {
+        return settled[v] == generation;
+    }
+
+    /**
+     * Records a cheaper way of reaching v and queues v at that cost
+     * @param v the node reached
+     * @param cost the cost of reaching v
+     * @param from the node v was reached from, or -1 for the start node
+     * @param edge the edge v was reached by, or -1 for the start node
+     * @spec.requires cost < dist(v), and v is not settled
+     */
+    void reach(int v, double cost, int from, int edge) {
+        reach(v, cost, cost, from, edge);
+    }
+
+    /**
+     * Records a cheaper way of reaching v and queues v at the given priority, such as
+     *  cost plus an estimate of the cost left from v
+     * @param v the node reached
+     * @param cost the cost of reaching v
+     * @param priority the priority to queue v at
+     * @param from the node v was reached from, or -1 for the start node
+     * @param edge the edge v was reached by, or -1 for the start node
+     * @spec.requires cost < dist(v), v is not settled, and priority - cost is the same
+     *                every time v is reached in one search
+     */
+    void reach(int v, double cost, double priority, int from, int edge) {
+        if (lazy != null) {
+            inserts++;
+            lazy.add(new QueueEntry(v, priority));
+        } else if (heap.contains(v)) {
+            decreases++;
+            heap.offer(v, priority);
+        } else {
+            inserts++;
+            heap.offer(v, priority);
+        }
+        dist[v] = cost;
+        parent[v] = from;
+        parentEdge[v] = edge;
+        reached[v] = generation;
+    }
+
+    /**
+     * @return the lowest priority of any unsettled node in the queue, or infinity if
+     * there is none
+     */
+    double peekPriority() {
+        if (lazy != null) {
+            // drop stale entries for nodes already settled
+            while (!lazy.isEmpty() && settled[lazy.peek().node] == generation) {
+                polls++;
+                lazy.remove();
+            }
+            return lazy.isEmpty() ? Double.POSITIVE_INFINITY : lazy.peek().priority;
+        }
+        return heap.isEmpty() ? Double.POSITIVE_INFINITY : heap.peekPriority();
+    }
+
+    /**
+     * Removes the unsettled node with the lowest priority from the queue and settles it
+     * @return the node settled, or -1 if there are no more nodes to settle
+     */
+    int settleNext() {
+        int u = -1;
+        if (lazy != null) {
+            while (!lazy.isEmpty()) {
+                polls++;
+                int next = lazy.remove().node;
+                // skip stale entries for nodes already settled
+                if (settled[next] != generation) {
+                    u = next;
+                    break;
+                }
+            }
+        } else if (!heap.isEmpty()) {
+            polls++;
+            u = heap.poll();
+        }
+        if (u >= 0) {
+            settledNodes++;
+            settled[u] = generation;
+        }
+        return u;
+    }
+
+    /**
+     * @return the node each reached node was reached from, valid for reached nodes
+     */
+    int[] parents() {
+        return parent;
+    }
+
+    /**
+     * @return the edge each reached node was reached by, valid for reached nodes
+     */
+    int[] parentEdges() {
+        return parentEdge;
+    }
+}
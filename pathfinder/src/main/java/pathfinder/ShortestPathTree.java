@@ -0,0 +1,133 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+/**
+ * ShortestPathTree represents the lowest cost paths from one node of a frozen graph to
+ *  every node it can reach. Each reached node stores its distance from the root and
+ *  the edge it is reached by on its lowest cost path, so the path to any node is a walk
+ *  up the tree, whose length is the number of edges on the path.
+ */
+public final class ShortestPathTree<T> {
+
+    // the graph the tree spans
+    private final CsrGraph<T> graph;
+
+    // the id of the root
+    private final int source;
+
+    // dist[v] = cost of the lowest cost path from source to v, or infinity if v is
+    //  not reached
+    private final double[] dist;
+
+    // the node and edge before v on its path, or -1 for source and unreached nodes
+    private final int[] parent;
+    private final int[] parentEdge;
+
+    // Representation Invariant:
+    //  graph != null, 0 <= source < graph.nodeCount(), and dist, parent, parentEdge all
+    //   have length graph.nodeCount()
+    //  dist[source] = 0 and parent[source] = -1
+    //  for each v != source with dist[v] < infinity: parentEdge[v] is an edge of graph
+    //   from parent[v] to v, and dist[v] = dist[parent[v]] + its weight
+    //  for each v with dist[v] = infinity: parent[v] = parentEdge[v] = -1
+    //
+    // Abstraction Function:
+    //  AF(this) = the tree rooted at node source of graph in which the parent of every
+    //   reached node v is parent[v], joined by the edge parentEdge[v], and the cost of
+    //   the tree path from source to v is dist[v]
+
+    /**
+     * Constructs a tree from the arrays of a finished search, which it takes ownership of
+     * @param graph the graph searched
+     * @param source the id of the root
+     * @param dist the cost of reaching each node
+     * @param parent the node each node was reached from
+     * @param parentEdge the edge each node was reached by
+     * @spec.requires the arguments satisfy the representation invariant
+     */
+    ShortestPathTree(CsrGraph<T> graph, int source, double[] dist, int[] parent,
+                     int[] parentEdge) {
+        this.graph = graph;
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+        this.parentEdge = parentEdge;
+        checkRep();
+    }
+
+    /**
+     * @return the id of the root of this tree
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * @param target the id of a node in the graph
+     * @throws IllegalArgumentException if target is not an id in the graph
+     * @return the cost of the lowest cost path from the root to target, or infinity if
+     * there is none
+     */
+    public double distanceTo(int target) throws IllegalArgumentException {
+        checkId(target);
+        return dist[target];
+    }
+
+    /**
+     * Walks up the tree from target and builds the path from the root to it
+     * @param target the id of a node in the graph
+     * @throws IllegalArgumentException if target is not an id in the graph
+     * @return the lowest cost path from the root to target, or null if there is none
+     */
+    public Path<T> pathTo(int target) throws IllegalArgumentException {
+        checkId(target);
+        if (dist[target] == Double.POSITIVE_INFINITY) { return null; }
+        return DijkstraPathFinder.buildPath(graph, parent, parentEdge, source, target);
+    }
+
+    /**
+     * Walks up the tree from target and lists the edges on the path from the root to it
+     * @param target the id of a node in the graph
+     * @throws IllegalArgumentException if target is not an id in the graph
+     * @return the ids of the edges of the lowest cost path from the root to target in
+     * order, which is empty if target is the root, or null if there is no path
+     */
+    public int[] edgesTo(int target) throws IllegalArgumentException {
+        checkId(target);
+        if (dist[target] == Double.POSITIVE_INFINITY) { return null; }
+        int length = 0;
+        for (int v = target; v != source; v = parent[v]) { length++; }
+        int[] edges = new int[length];
+        for (int v = target, i = length - 1; v != source; v = parent[v], i--) {
+            edges[i] = parentEdge[v];
+        }
+        return edges;
+    }
+
+    /**
+     * @return the bytes of the arrays of this tree
+     */
+    public long bytes() {
+        return (long) dist.length * (Double.BYTES + 2 * Integer.BYTES);
+    }
+
+    // Throws IllegalArgumentException if v is not a node id of the graph.
+    private void checkId(int v) throws IllegalArgumentException {
+        if (v < 0 || v >= dist.length) {
+            throw new IllegalArgumentException("Node id out of range.");
+        }
+    }
+
+    /**
+     * Checks that the representation invariant holds
+     */
+    private void checkRep() {
+        assert graph != null: "graph is null";
+        assert source >= 0 && source < graph.nodeCount(): "source out of range";
+        assert dist.length == graph.nodeCount() && parent.length == dist.length
+                && parentEdge.length == dist.length: "arrays do not match the graph";
+        assert dist[source] == 0 && parent[source] == -1: "root has a parent";
+    }
+}
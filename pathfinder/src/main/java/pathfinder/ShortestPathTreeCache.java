@@ -0,0 +1,173 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ShortestPathTreeCache is a shortest path engine that keeps the shortest path trees
+ *  of the start nodes it was last asked about. The first query from a start node runs
+ *  Dijkstra's algorithm to every node and keeps the resulting tree; later queries from
+ *  the same start walk up that tree, which takes time in the length of the path. When
+ *  the cache is full, the tree of the start node used least recently is dropped.
+ *
+ *  Every path is the same one DijkstraPathFinder returns with the same kind of queue.
+ *  A cache may be shared by many threads. Searches run without holding the lock, so a
+ *  miss does not hold up lookups of other start nodes; two threads that miss the same
+ *  start node at once may both search, and both get the tree that is kept.
+ */
+public class ShortestPathTreeCache<T> implements PathEngine<T> {
+
+    // Note: ShortestPathTreeCache is not ann ADT, hence does not have RI or AF
+
+    // the graph searched
+    private final CsrGraph<T> graph;
+
+    // the search that builds each tree
+    private final DijkstraPathFinder<T, Double> finder;
+
+    // scratch space of the searches, one per thread
+    private final ThreadLocal<SearchWorkspace> workspaces;
+
+    // most trees kept at once
+    private final int capacity;
+
+    // start node id -> its tree, from least to most recently used; guarded by this
+    private final LinkedHashMap<Integer, ShortestPathTree<T>> trees;
+
+    // lookups answered from a kept tree or by a new search, and trees dropped, since
+    //  the counts were last reset; guarded by this
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty cache over graph, whose searches use a QUATERNARY_HEAP
+     * @param graph the graph to search
+     * @param capacity the most trees to keep at once
+     * @throws IllegalArgumentException if graph is null or capacity is not positive
+     */
+    public ShortestPathTreeCache(CsrGraph<T> graph, int capacity)
+            throws IllegalArgumentException {
+        this(graph, capacity, DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    /**
+     * Constructs an empty cache over graph
+     * @param graph the graph to search
+     * @param capacity the most trees to keep at once
+     * @param queueKind the kind of queue searches use
+     * @throws IllegalArgumentException if graph or queueKind is null, or capacity is not
+     *         positive
+     */
+    public ShortestPathTreeCache(CsrGraph<T> graph, int capacity,
+                                 DijkstraPathFinder.QueueKind queueKind)
+            throws IllegalArgumentException {
+        if (graph == null || queueKind == null) {
+            throw new IllegalArgumentException("Null argument received.");
+        }
+        if (capacity <= 0) { throw new IllegalArgumentException("Capacity must be positive."); }
+        this.graph = graph;
+        this.capacity = capacity;
+        this.finder = new DijkstraPathFinder<>(Double::doubleValue, queueKind);
+        this.workspaces = ThreadLocal.withInitial(finder::newWorkspace);
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree<T>> e) {
+                boolean full = size() > ShortestPathTreeCache.this.capacity;
+                if (full) { evictions++; }
+                return full;
+            }
+        };
+    }
+
+    @Override
+    public Path<T> shortestPath(int source, int target) {
+        return tree(source).pathTo(target);
+    }
+
+    /**
+     * Gives the shortest path tree rooted at the node with the given id, from the
+     *  cache if it is kept, or by a new search that is then kept
+     * @param source the id of the root
+     * @throws IllegalArgumentException if source is not an id in the graph
+     * @spec.modifies this
+     * @return the shortest path tree rooted at source
+     */
+    public ShortestPathTree<T> tree(int source) throws IllegalArgumentException {
+        if (source < 0 || source >= graph.nodeCount()) {
+            throw new IllegalArgumentException("Node id out of range.");
+        }
+        synchronized (this) {
+            ShortestPathTree<T> tree = trees.get(source);
+            if (tree != null) {
+                hits++;
+                return tree;
+            }
+            misses++;
+        }
+        ShortestPathTree<T> tree = finder.shortestPathTree(graph, source, workspaces.get());
+        synchronized (this) {
+            // another thread may have kept a tree for source while this one searched
+            ShortestPathTree<T> kept = trees.putIfAbsent(source, tree);
+            return kept != null ? kept : tree;
+        }
+    }
+
+    /**
+     * @return the most trees this cache keeps at once
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of trees kept now
+     */
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    /**
+     * @return the number of lookups answered from a kept tree since the counts were
+     * last reset
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that needed a new search since the counts were
+     * last reset
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of trees dropped to make room since the counts were last reset
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Sets every count back to zero
+     * @spec.modifies this
+     */
+    public synchronized void resetCounts() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Drops every kept tree
+     * @spec.modifies this
+     */
+    public synchronized void clear() {
+        trees.clear();
+    }
+}
@@ -0,0 +1,107 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.DesignMap;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.AStarPathFinder;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.SearchWorkspace;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+public class TestAStarPathFinder {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int SIDE = 30;
+
+    private static CsrGraph<Point> graph;
+
+    @BeforeClass
+    public static void buildGrid() {
+        // a grid whose edges cost between 2 and 3 times their length
+        Random rnd = new Random(331);
+        DesignMap<Point, Double> map = new DesignMap<>();
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                Point p = new Point(i, j);
+                if (i + 1 < SIDE) { addBoth(map, p, new Point(i + 1, j), 2 + rnd.nextDouble()); }
+                if (j + 1 < SIDE) { addBoth(map, p, new Point(i, j + 1), 2 + rnd.nextDouble()); }
+            }
+        }
+        // one cheap edge sets the lowest cost per unit of length
+        addBoth(map, new Point(0, 0), new Point(0, 1), 1.5);
+        graph = map.toCsr(Double::doubleValue);
+    }
+
+    private static void addBoth(DesignMap<Point, Double> map, Point a, Point b, double cost) {
+        map.addEdge(a, b, cost);
+        map.addEdge(b, a, cost);
+    }
+
+    @Test
+    public void testCalibratedScaleIsLowestCostPerLength() {
+        assertEquals(1.5, AStarPathFinder.calibratedScale(graph, Point::getX, Point::getY), 1e-6);
+        AStarPathFinder<Point> finder = new AStarPathFinder<>(graph, Point::getX, Point::getY);
+        assertTrue(finder.isAdmissible());
+    }
+
+    @Test
+    public void testMatchesDijkstraAndSettlesFewerNodes() {
+        AStarPathFinder<Point> astar = new AStarPathFinder<>(graph, Point::getX, Point::getY);
+        DijkstraPathFinder<Point, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        SearchWorkspace astarSpace = astar.newWorkspace();
+        SearchWorkspace dijkstraSpace = dijkstra.newWorkspace();
+        Random rnd = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            int src = rnd.nextInt(graph.nodeCount());
+            int dst = rnd.nextInt(graph.nodeCount());
+            Path<Point> expected = dijkstra.shortestPath(graph, src, dst, dijkstraSpace);
+            Path<Point> actual = astar.shortestPath(src, dst, astarSpace);
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+            assertEquals(expected.getEnd(), actual.getEnd());
+        }
+        assertTrue(astarSpace.settledNodes() < dijkstraSpace.settledNodes());
+    }
+
+    @Test
+    public void testInadmissibleScaleFallsBackToDijkstra() {
+        // ten times the lowest cost per length overestimates almost every edge, so an A*
+        //  search with it would settle far fewer nodes and miss some shortest paths
+        AStarPathFinder<Point> finder = new AStarPathFinder<>(graph, Point::getX, Point::getY,
+                10.0, DijkstraPathFinder.QueueKind.BINARY_HEAP);
+        assertFalse(finder.isAdmissible());
+        DijkstraPathFinder<Point, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue,
+                DijkstraPathFinder.QueueKind.BINARY_HEAP);
+        SearchWorkspace finderSpace = finder.newWorkspace();
+        SearchWorkspace dijkstraSpace = dijkstra.newWorkspace();
+        Random rnd = new Random(2);
+        for (int i = 0; i < 100; i++) {
+            int src = rnd.nextInt(graph.nodeCount());
+            int dst = rnd.nextInt(graph.nodeCount());
+            Path<Point> expected = dijkstra.shortestPath(graph, src, dst, dijkstraSpace);
+            Path<Point> actual = finder.shortestPath(src, dst, finderSpace);
+            assertEquals(expected, actual);
+            // the very same search ran, node for node
+            assertEquals(dijkstraSpace.settledNodes(), finderSpace.settledNodes());
+        }
+    }
+
+    @Test
+    public void testBadArgumentsThrow() {
+        try {
+            new AStarPathFinder<>(graph, Point::getX, Point::getY, -1.0,
+                    DijkstraPathFinder.QueueKind.BINARY_HEAP);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.DesignMap;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.AlternativeRouteFinder;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.SearchWorkspace;
+import pathfinder.datastructures.Path;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+import static pathfinder.testUtils.SearchAssertions.assertLoopless;
+
+public class TestAlternativeRouteFinder {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int SIDE = 8;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGrid() {
+        // a walking grid, where every route has alternatives a block or more away
+        Random rnd = new Random(22);
+        DesignMap<Integer, Double> map = new DesignMap<>();
+        for (int i = 0; i < SIDE * SIDE; i++) { map.addNode(i); }
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                int u = i * SIDE + j;
+                if (j + 1 < SIDE) { addStreet(map, u, u + 1, 10 + rnd.nextInt(10)); }
+                if (i + 1 < SIDE) { addStreet(map, u, u + SIDE, 10 + rnd.nextInt(10)); }
+            }
+        }
+        graph = map.toCsr(Double::doubleValue);
+    }
+
+    private static void addStreet(DesignMap<Integer, Double> map, int u, int v, double w) {
+        map.addEdge(u, v, w);
+        map.addEdge(v, u, w);
+    }
+
+    @Test
+    public void testRoutesAreShortAndDifferent() {
+        AlternativeRouteFinder<Integer> finder = new AlternativeRouteFinder<>(graph);
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        SearchWorkspace workspace = finder.newWorkspace();
+        int alternatives = 0;
+        for (int s = 0; s < SIDE * SIDE; s += 5) {
+            for (int t = 0; t < SIDE * SIDE; t += 3) {
+                if (s == t) { continue; }
+                List<Path<Integer>> routes = finder.routes(s, t, 3, workspace);
+                assertTrue(routes.size() >= 1 && routes.size() <= 3);
+                double best = dijkstra.shortestPath(graph, s, t).getCost();
+                assertEquals(best, routes.get(0).getCost(), EPSILON);
+                for (int i = 0; i < routes.size(); i++) {
+                    assertLoopless(routes.get(i), graph.node(s), graph.node(t));
+                    assertTrue(routes.get(i).getCost() <= 1.4 * best + EPSILON);
+                    for (int j = 0; j < i; j++) {
+                        // whichever of the two was kept later shares little with the other
+                        assertTrue(overlap(routes.get(i), routes.get(j)) <= 0.6 + EPSILON
+                                || overlap(routes.get(j), routes.get(i)) <= 0.6 + EPSILON);
+                    }
+                }
+                alternatives += routes.size() - 1;
+            }
+        }
+        assertTrue(alternatives > 0);
+    }
+
+    @Test
+    public void testQueriesLeaveNoPenalties() {
+        AlternativeRouteFinder<Integer> finder = new AlternativeRouteFinder<>(graph, 2.0, 0.5,
+                1.5, DijkstraPathFinder.QueueKind.BINARY_HEAP);
+        List<Path<Integer>> first = finder.routes(0, SIDE * SIDE - 1, 4);
+        finder.routes(SIDE - 1, SIDE * (SIDE - 1), 4);
+        assertEquals(first, finder.routes(0, SIDE * SIDE - 1, 4));
+        assertEquals(first.get(0), new DijkstraPathFinder<Integer, Double>(Double::doubleValue)
+                .shortestPath(graph, 0, SIDE * SIDE - 1));
+    }
+
+    @Test
+    public void testOneRoute() {
+        List<Path<Integer>> routes = new AlternativeRouteFinder<>(graph).routes(0, 9, 1);
+        assertEquals(1, routes.size());
+    }
+
+    @Test
+    public void testSameStartAndEnd() {
+        List<Path<Integer>> routes = new AlternativeRouteFinder<>(graph).routes(5, 5, 3);
+        assertEquals(1, routes.size());
+        assertEquals(0, routes.get(0).getCost(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveK() {
+        new AlternativeRouteFinder<>(graph).routes(0, 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPenaltyTooSmall() {
+        new AlternativeRouteFinder<>(graph, 1.0, 0.5, 1.5,
+                DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlapTooLarge() {
+        new AlternativeRouteFinder<>(graph, 1.5, 1.0, 1.5,
+                DijkstraPathFinder.QueueKind.QUATERNARY_HEAP);
+    }
+
+    // Gives the share of the cost of a spent on segments of b.
+    private static double overlap(Path<Integer> a, Path<Integer> b) {
+        Set<List<Integer>> segments = new HashSet<>();
+        for (Path<Integer>.Segment segment: b) {
+            segments.add(List.of(segment.getStart(), segment.getEnd()));
+        }
+        double shared = 0;
+        for (Path<Integer>.Segment segment: a) {
+            if (segments.contains(List.of(segment.getStart(), segment.getEnd()))) {
+                shared += segment.getCost();
+            }
+        }
+        return shared / a.getCost();
+    }
+}
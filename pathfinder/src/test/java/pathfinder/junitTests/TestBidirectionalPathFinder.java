@@ -0,0 +1,46 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.BidirectionalPathFinder;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+import static pathfinder.testUtils.SearchAssertions.assertPathsMatchDijkstra;
+
+public class TestBidirectionalPathFinder {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse directed graph, so the reversed graph differs from the graph
+        graph = RandomGraphs.sparse(NODES, 3, 14, rnd -> rnd.nextInt(50))
+                .toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testMatchesDijkstra() {
+        for (DijkstraPathFinder.QueueKind kind: DijkstraPathFinder.QueueKind.values()) {
+            BidirectionalPathFinder<Integer> finder = new BidirectionalPathFinder<>(graph, kind);
+            assertPathsMatchDijkstra(graph, 11, 5, finder::shortestPath);
+        }
+    }
+
+    @Test
+    public void testSameStartAndEnd() {
+        Path<Integer> path = new BidirectionalPathFinder<>(graph).shortestPath(3, 3);
+        assertEquals(0, path.getCost(), EPSILON);
+        assertFalse(path.iterator().hasNext());
+    }
+
+}
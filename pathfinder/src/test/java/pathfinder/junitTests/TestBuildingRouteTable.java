@@ -0,0 +1,81 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.BuildingRouteTable;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+public class TestBuildingRouteTable {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    // the nodes of the table, with one repeat
+    private static final int[] MEMBERS = {3, 17, 42, 99, 150, 151, 208, 17, 299};
+
+    private static CsrGraph<Integer> graph;
+    private static BuildingRouteTable<Integer> table;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse directed graph, so some pairs have no route
+        graph = RandomGraphs.sparse(NODES, 2, 19, rnd -> rnd.nextInt(10))
+                .toCsr(Double::doubleValue);
+        table = new BuildingRouteTable<>(graph, MEMBERS);
+    }
+
+    @Test
+    public void testSameRoutesAsFreshSearch() {
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        for (int src: MEMBERS) {
+            for (int dst: MEMBERS) {
+                Path<Integer> expected = dijkstra.shortestPath(graph, src, dst);
+                assertEquals(expected, table.path(src, dst));
+                double cost = expected == null ? Double.POSITIVE_INFINITY : expected.getCost();
+                assertEquals(cost, table.distance(src, dst), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testRepeatedNodesKeptOnce() {
+        assertEquals(MEMBERS.length - 1, table.size());
+        assertTrue(table.contains(17));
+        assertFalse(table.contains(18));
+        assertFalse(table.contains(-1));
+    }
+
+    @Test
+    public void testSizes() {
+        assertTrue(table.bytes() > 0);
+        assertTrue(table.buildNanos() > 0);
+    }
+
+    @Test
+    public void testNodeNotInTableThrows() {
+        try {
+            table.path(3, 18);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+
+    @Test
+    public void testIdOutOfRangeThrows() {
+        try {
+            new BuildingRouteTable<>(graph, new int[] {0, NODES});
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package pathfinder.junitTests;
+
+import graph.DesignMap;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+public class TestCampusMap {
+    @Rule public Timeout globalTimeout = Timeout.seconds(30); // 30 seconds max per method tested
+
+    private static CampusMap campus;
+    private static List<String> shortNames;
+
+    @BeforeClass
+    public static void loadCampus() {
+        campus = new CampusMap(CampusMap.Engine.DIJKSTRA);
+        shortNames = new ArrayList<>(campus.buildingNames().keySet());
+    }
+
+    /** Tests that routing on the frozen snapshot agrees with routing on the mutable map. */
+    @Test
+    public void testSnapshotMatchesDesignMap() {
+        DesignMap<Point, Double> map = new DesignMap<>();
+        for (CampusPath path: CampusPathsParser.parseCampusPaths("campus_paths.csv")) {
+            Point src = new Point(path.getX1(), path.getY1());
+            Point dst = new Point(path.getX2(), path.getY2());
+            if (!map.getLabels(src, dst).contains(path.getDistance())) {
+                map.addEdge(src, dst, path.getDistance());
+            }
+        }
+        DijkstraPathFinder<Point, Double> dijkstra =
+                new DijkstraPathFinder<>(Double::doubleValue);
+        assertEquals(52, shortNames.size());
+        int pairs = 0;
+        for (String start: shortNames) {
+            for (String end: shortNames) {
+                Path<Point> frozen = campus.findShortestPath(start, end);
+                Path<Point> mutable = dijkstra.DijkstraPath(map, frozen.getStart(),
+                        frozen.getEnd());
+                assertEquals(mutable.getCost(), frozen.getCost(), EPSILON);
+                pairs++;
+            }
+        }
+        assertEquals(2704, pairs);
+    }
+
+    /** Tests that the opt-in route table gives the same routes as searching per query. */
+    @Test
+    public void testRouteTableMatchesSearch() {
+        CampusMap searched = new CampusMap();
+        CampusMap tabled = new CampusMap(true);
+        for (String start: shortNames) {
+            for (String end: shortNames) {
+                Path<Point> path = searched.findShortestPath(start, end);
+                assertEquals(path, tabled.findShortestPath(start, end));
+                assertEquals(path.getCost(), tabled.findShortestDistance(start, end), EPSILON);
+                assertEquals(path.getCost(), searched.findShortestDistance(start, end), EPSILON);
+            }
+        }
+    }
+
+    /** Tests that the nearest of several buildings is the one with the cheapest route. */
+    @Test
+    public void testShortestPathToNearest() {
+        assertNull(campus.findShortestPathToNearest(shortNames.get(0), List.of()));
+        for (int i = 0; i < shortNames.size(); i += 7) {
+            String start = shortNames.get(i);
+            List<String> ends = shortNames.subList(i / 2, i / 2 + 5);
+            double best = Double.POSITIVE_INFINITY;
+            for (String end: ends) {
+                best = Math.min(best, campus.findShortestPath(start, end).getCost());
+            }
+            Path<Point> nearest = campus.findShortestPathToNearest(start, ends);
+            assertEquals(best, nearest.getCost(), EPSILON);
+        }
+    }
+
+    /** Tests that the k shortest and alternative route searches start from the shortest. */
+    @Test
+    public void testSeveralRoutesStartWithShortest() {
+        for (int i = 0; i < shortNames.size(); i += 13) {
+            String start = shortNames.get(i);
+            String end = shortNames.get(shortNames.size() - 1 - i);
+            Path<Point> shortest = campus.findShortestPath(start, end);
+            List<Path<Point>> paths = campus.findShortestPaths(start, end, 3);
+            assertEquals(shortest.getCost(), paths.get(0).getCost(), EPSILON);
+            List<Path<Point>> alternatives = campus.findAlternativePaths(start, end, 3);
+            assertEquals(shortest.getCost(), alternatives.get(0).getCost(), EPSILON);
+        }
+    }
+}
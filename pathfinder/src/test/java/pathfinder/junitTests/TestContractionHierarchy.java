@@ -0,0 +1,77 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.ContractionHierarchy;
+import pathfinder.SearchWorkspace;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+import static pathfinder.testUtils.SearchAssertions.assertDistancesMatchDijkstra;
+import static pathfinder.testUtils.SearchAssertions.assertPathsMatchDijkstra;
+
+public class TestContractionHierarchy {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+    private static ContractionHierarchy<Integer> hierarchy;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse directed graph with some zero cost edges
+        graph = RandomGraphs.sparse(NODES, 3, 16, rnd -> rnd.nextInt(50))
+                .toCsr(Double::doubleValue);
+        hierarchy = new ContractionHierarchy<>(graph);
+    }
+
+    @Test
+    public void testMatchesDijkstra() {
+        SearchWorkspace forward = hierarchy.newWorkspace();
+        SearchWorkspace backward = hierarchy.newWorkspace();
+        assertPathsMatchDijkstra(graph, 7, 3,
+                (src, dst) -> hierarchy.shortestPath(src, dst, forward, backward));
+        assertDistancesMatchDijkstra(graph, 7, 3,
+                (src, dst) -> hierarchy.distance(src, dst, forward, backward));
+    }
+
+    @Test
+    public void testRanksAreAnOrder() {
+        boolean[] seen = new boolean[NODES];
+        for (int v = 0; v < NODES; v++) {
+            int rank = hierarchy.rankOf(v);
+            assertFalse(seen[rank]);
+            seen[rank] = true;
+        }
+    }
+
+    @Test
+    public void testAddsShortcuts() {
+        assertTrue(hierarchy.shortcutCount() > 0);
+        assertTrue(hierarchy.preprocessingNanos() > 0);
+    }
+
+    @Test
+    public void testSameStartAndEnd() {
+        Path<Integer> path = hierarchy.shortestPath(3, 3);
+        assertEquals(0, path.getCost(), EPSILON);
+        assertFalse(path.iterator().hasNext());
+    }
+
+    @Test
+    public void testNullGraph() {
+        try {
+            new ContractionHierarchy<Integer>(null);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.DesignMap;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DialPathFinder;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import static org.junit.Assert.*;
+
+public class TestDialPathFinder {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // weights like walking distances: positive, unrounded, and within a bounded range,
+        //  so no two paths cost exactly the same
+        graph = RandomGraphs.sparse(NODES, 3, 23, rnd -> 5 + rnd.nextDouble() * 200)
+                .toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testSamePathsAsDijkstra() {
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        DialPathFinder<Integer> dial = new DialPathFinder<>(graph);
+        for (int src = 0; src < NODES; src += 7) {
+            for (int dst = 0; dst < NODES; dst += 3) {
+                assertEquals(dijkstra.shortestPath(graph, src, dst), dial.shortestPath(src, dst));
+            }
+        }
+    }
+
+    @Test
+    public void testNarrowBucketsGiveSameDistances() {
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        DialPathFinder<Integer> dial = new DialPathFinder<>(graph, 0.75);
+        assertTrue(dial.bucketCount() > new DialPathFinder<>(graph).bucketCount());
+        for (int src = 0; src < NODES; src += 13) {
+            assertArrayEquals(dijkstra.distances(graph, src, dijkstra.newWorkspace()),
+                    dial.distances(src), 0);
+        }
+    }
+
+    @Test
+    public void testSearchAfterStoppedSearch() {
+        // the first search stops at its target with nodes still in the buckets
+        DialPathFinder<Integer> dial = new DialPathFinder<>(graph);
+        Path<Integer> near = dial.shortestPath(0, graph.target(graph.firstEdge(0)));
+        assertNotNull(near);
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        assertEquals(dijkstra.shortestPath(graph, 1, 200), dial.shortestPath(1, 200));
+    }
+
+    @Test
+    public void testSameStartAndEnd() {
+        Path<Integer> path = new DialPathFinder<>(graph).shortestPath(4, 4);
+        assertEquals(0, path.getCost(), 0);
+        assertFalse(path.iterator().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWidthAboveLightestEdge() {
+        new DialPathFinder<>(graph, 300);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroWeightEdge() {
+        DesignMap<Integer, Double> map = new DesignMap<>();
+        map.addNode(0);
+        map.addNode(1);
+        map.addEdge(0, 1, 0.0);
+        new DialPathFinder<>(map.toCsr(Double::doubleValue));
+    }
+}
@@ -0,0 +1,120 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.DesignMap;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.SearchWorkspace;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+public class TestDijkstraPathFinder {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 200;
+
+    private static DesignMap<Integer, Double> map;
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse random graph with parallel edges, where some nodes cannot reach others
+        map = RandomGraphs.sparse(NODES, 3, 331, rnd -> rnd.nextInt(20));
+        graph = map.toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testQueueKindsAgree() {
+        DijkstraPathFinder<Integer, Double> reference = new DijkstraPathFinder<>();
+        for (DijkstraPathFinder.QueueKind kind: DijkstraPathFinder.QueueKind.values()) {
+            DijkstraPathFinder<Integer, Double> finder =
+                    new DijkstraPathFinder<>(Double::doubleValue, kind);
+            SearchWorkspace workspace = finder.newWorkspace();
+            for (int src = 0; src < NODES; src += 7) {
+                for (int dst = 0; dst < NODES; dst += 3) {
+                    Path<Integer> expected = reference.DijkstraPath(map, src, dst);
+                    Path<Integer> actual = finder.shortestPath(graph, graph.idOf(src),
+                            graph.idOf(dst), workspace);
+                    if (expected == null) {
+                        assertNull(actual);
+                    } else {
+                        assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+                        assertEquals(Integer.valueOf(dst), actual.getEnd());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWorkspaceCountsQueueOperations() {
+        DijkstraPathFinder<Integer, Double> lazy = new DijkstraPathFinder<>(Double::doubleValue,
+                DijkstraPathFinder.QueueKind.PRIORITY_QUEUE);
+        DijkstraPathFinder<Integer, Double> heap = new DijkstraPathFinder<>(Double::doubleValue,
+                DijkstraPathFinder.QueueKind.BINARY_HEAP);
+        SearchWorkspace lazySpace = lazy.newWorkspace();
+        SearchWorkspace heapSpace = heap.newWorkspace();
+        for (int dst = 1; dst < NODES; dst++) {
+            lazy.shortestPath(graph, 0, dst, lazySpace);
+            heap.shortestPath(graph, 0, dst, heapSpace);
+        }
+        assertEquals(0, lazySpace.queueDecreases());
+        assertTrue(heapSpace.queueInserts() > 0);
+        // the indexed heap never holds a node twice, so it never queues more nodes
+        assertTrue(heapSpace.queueInserts() <= lazySpace.queueInserts());
+        lazySpace.resetCounts();
+        assertEquals(0, lazySpace.queuePolls());
+    }
+
+    @Test
+    public void testSameStartAndEnd() {
+        Path<Integer> path = new DijkstraPathFinder<Integer, Double>(Double::doubleValue)
+                .shortestPath(graph, 5, 5);
+        assertEquals(0, path.getCost(), EPSILON);
+        assertEquals(graph.node(5), path.getEnd());
+    }
+
+    @Test
+    public void testNearestPathEndsAtNearestTarget() {
+        DijkstraPathFinder<Integer, Double> finder = new DijkstraPathFinder<>(Double::doubleValue);
+        SearchWorkspace workspace = finder.newWorkspace();
+        Random rnd = new Random(25);
+        for (int src = 0; src < NODES; src += 9) {
+            double[] dist = finder.distances(graph, src, finder.newWorkspace());
+            int[] targets = new int[1 + rnd.nextInt(6)];
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = rnd.nextInt(NODES);
+                nearest = Math.min(nearest, dist[targets[i]]);
+            }
+            Path<Integer> path = finder.nearestPath(graph, src, targets, workspace);
+            if (nearest == Double.POSITIVE_INFINITY) {
+                assertNull(path);
+            } else {
+                assertEquals(nearest, path.getCost(), EPSILON);
+                int end = graph.idOf(path.getEnd());
+                assertEquals(nearest, dist[end], EPSILON);
+                assertTrue(Arrays.stream(targets).anyMatch(t -> t == end));
+            }
+        }
+    }
+
+    @Test
+    public void testNearestPathFromTarget() {
+        DijkstraPathFinder<Integer, Double> finder = new DijkstraPathFinder<>(Double::doubleValue);
+        Path<Integer> path = finder.nearestPath(graph, 4, new int[] {9, 4, 9},
+                finder.newWorkspace());
+        assertEquals(0, path.getCost(), 0);
+        assertEquals(graph.node(4), path.getEnd());
+        assertNull(finder.nearestPath(graph, 4, new int[0], finder.newWorkspace()));
+    }
+}
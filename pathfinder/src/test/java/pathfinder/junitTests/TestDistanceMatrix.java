@@ -0,0 +1,89 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.DistanceMatrix;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+public class TestDistanceMatrix {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse directed graph, so some pairs have no path
+        graph = RandomGraphs.sparse(NODES, 2, 20, rnd -> rnd.nextInt(50))
+                .toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testMatchesDistances() {
+        int[] sources = new int[40];
+        int[] targets = new int[25];
+        for (int i = 0; i < sources.length; i++) { sources[i] = i * 7; }
+        for (int j = 0; j < targets.length; j++) { targets[j] = j * 11 + 3; }
+        targets[24] = targets[0]; // a repeated target
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            double[][] matrix = new DistanceMatrix<>(graph).compute(sources, targets, pool);
+            assertEquals(sources.length, matrix.length);
+            for (int i = 0; i < sources.length; i++) {
+                double[] all = dijkstra.distances(graph, sources[i], dijkstra.newWorkspace());
+                assertEquals(targets.length, matrix[i].length);
+                for (int j = 0; j < targets.length; j++) {
+                    assertEquals(all[targets[j]], matrix[i][j], EPSILON);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCommonPoolMatchesOwnPool() {
+        int[] nodes = {0, 5, 10, 250, 299};
+        DistanceMatrix<Integer> distances =
+                new DistanceMatrix<>(graph, DijkstraPathFinder.QueueKind.PRIORITY_QUEUE);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            double[][] own = distances.compute(nodes, nodes, pool);
+            double[][] common = distances.compute(nodes, nodes);
+            for (int i = 0; i < nodes.length; i++) {
+                assertArrayEquals(own[i], common[i], 0);
+                assertEquals(0, common[i][i], 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmptySets() {
+        DistanceMatrix<Integer> distances = new DistanceMatrix<>(graph);
+        assertEquals(0, distances.compute(new int[0], new int[] {1}).length);
+        assertEquals(0, distances.compute(new int[] {1}, new int[0])[0].length);
+    }
+
+    @Test
+    public void testIdOutOfRangeThrows() {
+        try {
+            new DistanceMatrix<>(graph).compute(new int[] {0}, new int[] {NODES});
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.HubLabels;
+import pathfinder.testUtils.RandomGraphs;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+import static pathfinder.testUtils.SearchAssertions.assertDistancesMatchDijkstra;
+
+public class TestHubLabels {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse directed graph with some zero cost edges
+        graph = RandomGraphs.sparse(NODES, 3, 17, rnd -> rnd.nextInt(50))
+                .toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testMatchesDijkstra() {
+        for (HubLabels.Ordering ordering: HubLabels.Ordering.values()) {
+            HubLabels<Integer> labels = new HubLabels<>(graph, ordering);
+            assertDistancesMatchDijkstra(graph, 7, 3, labels::distance);
+        }
+    }
+
+    @Test
+    public void testAnyOrderIsExact() {
+        // reverse id order: bad for label size, but still exact
+        int[] order = new int[NODES];
+        for (int i = 0; i < NODES; i++) { order[i] = NODES - 1 - i; }
+        HubLabels<Integer> labels = new HubLabels<>(graph, order);
+        HubLabels<Integer> degree = new HubLabels<>(graph, HubLabels.Ordering.DEGREE);
+        for (int src = 0; src < NODES; src += 13) {
+            for (int dst = 0; dst < NODES; dst += 5) {
+                assertEquals(degree.distance(src, dst), labels.distance(src, dst), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testSameStartAndEnd() {
+        HubLabels<Integer> labels = new HubLabels<>(graph, HubLabels.Ordering.DEGREE);
+        assertEquals(0, labels.distance(5, 5), EPSILON);
+    }
+
+    @Test
+    public void testLabelSizes() {
+        HubLabels<Integer> labels = new HubLabels<>(graph, HubLabels.Ordering.DEGREE);
+        // every node is a hub of its own forward and backward label
+        assertTrue(labels.averageLabelSize() >= 2);
+        assertTrue(labels.maxLabelSize() >= labels.averageLabelSize());
+        assertTrue(labels.labelBytes() > 0);
+    }
+
+    @Test
+    public void testOrderWithRepeatThrows() {
+        int[] order = new int[NODES];
+        try {
+            new HubLabels<>(graph, order);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+
+    @Test
+    public void testIdOutOfRangeThrows() {
+        HubLabels<Integer> labels = new HubLabels<>(graph, HubLabels.Ordering.DEGREE);
+        try {
+            labels.distance(0, NODES);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.Isochrone;
+import pathfinder.SearchWorkspace;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+public class TestIsochrone {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+
+    private static DijkstraPathFinder<Integer, Double> dijkstra;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        graph = RandomGraphs.sparse(NODES, 3, 24, rnd -> 1 + rnd.nextDouble() * 50)
+                .toCsr(Double::doubleValue);
+        dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+    }
+
+    @Test
+    public void testMatchesDistances() {
+        SearchWorkspace workspace = dijkstra.newWorkspace();
+        for (int src = 0; src < NODES; src += 17) {
+            double[] dist = dijkstra.distances(graph, src, dijkstra.newWorkspace());
+            for (double budget: new double[] {0, 20, 60, 150}) {
+                Isochrone<Integer> area = dijkstra.isochrone(graph, src, budget, workspace);
+                assertEquals(src, area.source());
+                assertEquals(budget, area.budget(), 0);
+                Map<Integer, Double> reached = new HashMap<>();
+                for (int i = 0; i < area.size(); i++) {
+                    assertEquals(dist[area.id(i)], area.distance(i), EPSILON);
+                    assertEquals(graph.node(area.id(i)), area.node(i));
+                    if (i > 0) { assertTrue(area.distance(i - 1) <= area.distance(i)); }
+                    reached.put(area.id(i), area.distance(i));
+                }
+                int cuts = 0;
+                for (int v = 0; v < NODES; v++) {
+                    assertEquals(dist[v] <= budget, reached.containsKey(v));
+                    if (!reached.containsKey(v)) { continue; }
+                    for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                        if (!reached.containsKey(graph.target(e))) { cuts++; }
+                    }
+                }
+                assertEquals(cuts, area.frontierSize());
+                for (int i = 0; i < area.frontierSize(); i++) {
+                    int start = graph.idOf(area.frontierStart(i));
+                    assertTrue(reached.containsKey(start));
+                    assertFalse(reached.containsKey(graph.idOf(area.frontierEnd(i))));
+                    assertEquals(budget - reached.get(start), area.frontierReach(i), EPSILON);
+                    assertTrue(area.frontierReach(i) < area.frontierWeight(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnlimitedBudget() {
+        Isochrone<Integer> area = dijkstra.isochrone(graph, 0, Double.POSITIVE_INFINITY,
+                dijkstra.newWorkspace());
+        double[] dist = dijkstra.distances(graph, 0, dijkstra.newWorkspace());
+        int reachable = 0;
+        for (double d: dist) {
+            if (d < Double.POSITIVE_INFINITY) { reachable++; }
+        }
+        assertEquals(reachable, area.size());
+        assertEquals(0, area.frontierSize());
+    }
+
+    @Test
+    public void testZeroBudget() {
+        Isochrone<Integer> area = dijkstra.isochrone(graph, 5, 0, dijkstra.newWorkspace());
+        assertEquals(1, area.size());
+        assertEquals(5, area.id(0));
+        assertEquals(graph.endEdge(5) - graph.firstEdge(5), area.frontierSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        dijkstra.isochrone(graph, 0, -1, dijkstra.newWorkspace());
+    }
+}
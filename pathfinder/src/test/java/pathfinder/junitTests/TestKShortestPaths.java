@@ -0,0 +1,121 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.DesignMap;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.KShortestPathFinder;
+import pathfinder.SearchWorkspace;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+import static pathfinder.testUtils.SearchAssertions.assertLoopless;
+
+public class TestKShortestPaths {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 9;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // small enough to list every loopless path, dense enough to have many
+        Random rnd = new Random(21);
+        DesignMap<Integer, Double> map = new DesignMap<>();
+        for (int i = 0; i < NODES; i++) { map.addNode(i); }
+        for (int i = 0; i < NODES * 3; i++) {
+            int src = rnd.nextInt(NODES);
+            int dst = rnd.nextInt(NODES);
+            if (src != dst && map.getLabels(src, dst).isEmpty()) {
+                map.addEdge(src, dst, (double) (1 + rnd.nextInt(20)));
+            }
+        }
+        graph = map.toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testMatchesEveryLooplessPath() {
+        KShortestPathFinder<Integer> finder = new KShortestPathFinder<>(graph);
+        SearchWorkspace workspace = finder.newWorkspace();
+        for (int s = 0; s < NODES; s++) {
+            for (int t = 0; t < NODES; t++) {
+                if (s == t) { continue; }
+                List<Double> all = new ArrayList<>();
+                boolean[] onPath = new boolean[NODES];
+                onPath[s] = true;
+                listCosts(s, t, 0, onPath, all);
+                all.sort(null);
+                List<Path<Integer>> paths = finder.shortestPaths(s, t, 5, workspace);
+                assertEquals(Math.min(5, all.size()), paths.size());
+                Set<Path<Integer>> distinct = new HashSet<>(paths);
+                assertEquals(paths.size(), distinct.size());
+                for (int i = 0; i < paths.size(); i++) {
+                    assertEquals(all.get(i), paths.get(i).getCost(), EPSILON);
+                    assertLoopless(paths.get(i), graph.node(s), graph.node(t));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFirstPathIsShortestPath() {
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        KShortestPathFinder<Integer> finder =
+                new KShortestPathFinder<>(graph, DijkstraPathFinder.QueueKind.BINARY_HEAP);
+        for (int t = 1; t < NODES; t++) {
+            Path<Integer> shortest = dijkstra.shortestPath(graph, 0, t);
+            List<Path<Integer>> paths = finder.shortestPaths(0, t, 1);
+            if (shortest == null) {
+                assertTrue(paths.isEmpty());
+            } else {
+                assertEquals(1, paths.size());
+                assertEquals(shortest.getCost(), paths.get(0).getCost(), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testSameStartAndEnd() {
+        List<Path<Integer>> paths = new KShortestPathFinder<>(graph).shortestPaths(3, 3, 4);
+        assertEquals(1, paths.size());
+        assertEquals(0, paths.get(0).getCost(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveK() {
+        new KShortestPathFinder<>(graph).shortestPaths(0, 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdOutOfRange() {
+        new KShortestPathFinder<>(graph).shortestPaths(0, NODES, 3);
+    }
+
+    // Adds the cost of every loopless path from u to t to costs.
+    private static void listCosts(int u, int t, double cost, boolean[] onPath,
+                                  List<Double> costs) {
+        if (u == t) {
+            costs.add(cost);
+            return;
+        }
+        for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+            int v = graph.target(e);
+            if (!onPath[v]) {
+                onPath[v] = true;
+                listCosts(v, t, cost + graph.weight(e), onPath, costs);
+                onPath[v] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.DesignMap;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.LandmarkPathFinder;
+import pathfinder.testUtils.RandomGraphs;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+import static pathfinder.testUtils.SearchAssertions.assertPathsMatchDijkstra;
+
+public class TestLandmarkPathFinder {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse directed graph, where some nodes cannot reach others
+        graph = RandomGraphs.sparse(NODES, 2, 15, rnd -> 1 + rnd.nextInt(30))
+                .toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testMatchesDijkstra() {
+        for (LandmarkPathFinder.Strategy strategy: LandmarkPathFinder.Strategy.values()) {
+            LandmarkPathFinder<Integer> finder = new LandmarkPathFinder<>(graph, 6, strategy);
+            assertPathsMatchDijkstra(graph, 13, 7, finder::shortestPath);
+        }
+    }
+
+    @Test
+    public void testLowerBoundNeverOverestimates() {
+        DijkstraPathFinder<Integer, Double> dijkstra =
+                new DijkstraPathFinder<>(Double::doubleValue);
+        LandmarkPathFinder<Integer> finder =
+                new LandmarkPathFinder<>(graph, 4, LandmarkPathFinder.Strategy.FARTHEST);
+        for (int src = 0; src < NODES; src += 17) {
+            double[] dist = dijkstra.distances(graph, src, dijkstra.newWorkspace());
+            for (int dst = 0; dst < NODES; dst++) {
+                assertTrue(finder.lowerBound(src, dst) <= dist[dst] + EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarkCountAndSize() {
+        LandmarkPathFinder<Integer> finder =
+                new LandmarkPathFinder<>(graph, 5, LandmarkPathFinder.Strategy.FARTHEST);
+        int[] landmarks = finder.landmarks();
+        assertEquals(5, landmarks.length);
+        for (int i = 0; i < landmarks.length; i++) {
+            for (int j = i + 1; j < landmarks.length; j++) {
+                assertNotEquals(landmarks[i], landmarks[j]);
+            }
+        }
+        assertEquals(2L * Double.BYTES * NODES, finder.bytesPerLandmark());
+        assertTrue(finder.preprocessingNanos() > 0);
+        // asking for more landmarks than nodes makes every node a landmark
+        DesignMap<String, Double> tiny = new DesignMap<>();
+        tiny.addEdge("A", "B", 1.0);
+        assertEquals(2, new LandmarkPathFinder<>(tiny.toCsr(Double::doubleValue), 9,
+                LandmarkPathFinder.Strategy.RANDOM).landmarks().length);
+    }
+
+    @Test
+    public void testNegativeCountThrows() {
+        try {
+            new LandmarkPathFinder<>(graph, -1, LandmarkPathFinder.Strategy.RANDOM);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.ShortestPathTree;
+import pathfinder.ShortestPathTreeCache;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RandomGraphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+public class TestShortestPathTreeCache {
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 300;
+
+    private static CsrGraph<Integer> graph;
+
+    @BeforeClass
+    public static void buildRandomGraph() {
+        // a sparse directed graph with many ties between paths
+        graph = RandomGraphs.sparse(NODES, 3, 18, rnd -> rnd.nextInt(10))
+                .toCsr(Double::doubleValue);
+    }
+
+    @Test
+    public void testSamePathsAsFreshSearch() {
+        for (DijkstraPathFinder.QueueKind kind: DijkstraPathFinder.QueueKind.values()) {
+            DijkstraPathFinder<Integer, Double> dijkstra =
+                    new DijkstraPathFinder<>(Double::doubleValue, kind);
+            ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(graph, 4, kind);
+            for (int src = 0; src < NODES; src += 11) {
+                for (int dst = 0; dst < NODES; dst += 3) {
+                    Path<Integer> expected = dijkstra.shortestPath(graph, src, dst);
+                    assertEquals(expected, cache.shortestPath(src, dst));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTreeDistances() {
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        double[] expected = dijkstra.distances(graph, 7, dijkstra.newWorkspace());
+        ShortestPathTree<Integer> tree = new ShortestPathTreeCache<>(graph, 1).tree(7);
+        assertEquals(7, tree.source());
+        for (int v = 0; v < NODES; v++) {
+            assertEquals(expected[v], tree.distanceTo(v), EPSILON);
+            assertEquals(expected[v] == Double.POSITIVE_INFINITY, tree.pathTo(v) == null);
+        }
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(graph, 2);
+        cache.shortestPath(1, 5);
+        cache.shortestPath(1, 9);
+        cache.shortestPath(2, 5);
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(0, cache.evictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(graph, 2);
+        ShortestPathTree<Integer> first = cache.tree(1);
+        cache.tree(2);
+        cache.tree(1); // 2 is now the least recently used
+        cache.tree(3);
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+        assertSame(first, cache.tree(1));
+        cache.resetCounts();
+        cache.tree(2);
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws Exception {
+        DijkstraPathFinder<Integer, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(graph, 3);
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            // the threads ask about more start nodes than are kept, so they keep missing
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 40; i++) {
+                    int src = (i + offset) % 6 * 37;
+                    int dst = (i * 13 + offset) % NODES;
+                    assertEquals(dijkstra.shortestPath(graph, src, dst),
+                            cache.shortestPath(src, dst));
+                }
+            }));
+        }
+        for (Future<?> future: futures) { future.get(); }
+        pool.shutdown();
+        assertEquals(threads * 40, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= 3);
+    }
+
+    @Test
+    public void testClear() {
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(graph, 2);
+        cache.tree(1);
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testZeroCapacityThrows() {
+        try {
+            new ShortestPathTreeCache<>(graph, 0);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+
+    @Test
+    public void testIdOutOfRangeThrows() {
+        ShortestPathTreeCache<Integer> cache = new ShortestPathTreeCache<>(graph, 2);
+        try {
+            cache.tree(NODES);
+            fail("Expected IllegalArgumentException not occurred.");
+        } catch (IllegalArgumentException e) {
+            e.getStackTrace();
+        }
+    }
+}
@@ -162,7 +162,7 @@ public class PathfinderTestDriver {
             output.println("unknown: " + dest);
         } else {
             output.println("path from " + start + " to " + dest + ":");
-                DijkstraPathFinder<String, Double> finder = new DijkstraPathFinder<>();
+                DijkstraPathFinder<String, Double> finder = new DijkstraPathFinder<>(Double::doubleValue);
                 Path<String> paths = finder.DijkstraPath(map, start, dest);
                 if (paths == null) {
                     output.println("no path found");
@@ -0,0 +1,49 @@
+package pathfinder.testUtils;
+
+import graph.DesignMap;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * RandomGraphs builds the seeded random graphs that the search tests compare their
+ *  engines on, so every test draws its graph the same way.
+ */
+public final class RandomGraphs {
+
+    // Note: RandomGraphs is not ann ADT, hence does not have RI or AF
+
+    /** Accuracy required to 1 PPB when comparing path costs */
+    public static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private RandomGraphs() {
+    }
+
+    /**
+     * Builds a sparse directed graph on the nodes 0 to nodes - 1. Each of its
+     *  nodes * edgesPerNode edges joins two nodes picked at random, possibly the same
+     *  node twice, and is skipped if the same two nodes are already joined by an edge
+     *  of the same weight. Nodes may therefore have parallel edges, and some nodes
+     *  cannot reach others.
+     * @param nodes the number of nodes
+     * @param edgesPerNode the number of edges to draw per node
+     * @param seed the seed of the random draws, so a test always gets the same graph
+     * @param weights draws the weight of an edge
+     * @return a new DesignMap with the drawn nodes and edges
+     * @spec.requires nodes > 0, edgesPerNode >= 0, weights != null, and weights only
+     *                draws non-negative finite numbers
+     */
+    public static DesignMap<Integer, Double> sparse(int nodes, int edgesPerNode, long seed,
+                                                    ToDoubleFunction<Random> weights) {
+        Random rnd = new Random(seed);
+        DesignMap<Integer, Double> map = new DesignMap<>();
+        for (int i = 0; i < nodes; i++) { map.addNode(i); }
+        for (int i = 0; i < nodes * edgesPerNode; i++) {
+            int src = rnd.nextInt(nodes);
+            int dst = rnd.nextInt(nodes);
+            double weight = weights.applyAsDouble(rnd);
+            if (!map.getLabels(src, dst).contains(weight)) { map.addEdge(src, dst, weight); }
+        }
+        return map;
+    }
+}
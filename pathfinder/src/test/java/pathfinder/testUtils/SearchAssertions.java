@@ -0,0 +1,143 @@
+package pathfinder.testUtils;
+
+import graph.CsrGraph;
+import pathfinder.DijkstraPathFinder;
+import pathfinder.datastructures.Path;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RandomGraphs.EPSILON;
+
+/**
+ * SearchAssertions holds the checks the search tests share: that an engine agrees with
+ *  Dijkstra's algorithm over a grid of node pairs, and that a path it returns is a
+ *  real path of the graph.
+ */
+public final class SearchAssertions {
+
+    // Note: SearchAssertions is not ann ADT, hence does not have RI or AF
+
+    /**
+     * A search that finds a lowest cost path between two node ids
+     */
+    @FunctionalInterface
+    public interface PathSearch<T> {
+        /**
+         * @return the lowest cost path from source to target, or null if there is none
+         */
+        Path<T> shortestPath(int source, int target);
+    }
+
+    /**
+     * A search that finds the lowest cost between two node ids
+     */
+    @FunctionalInterface
+    public interface DistanceSearch {
+        /**
+         * @return the lowest cost from source to target, or infinity if there is no path
+         */
+        double distance(int source, int target);
+    }
+
+    private SearchAssertions() {
+    }
+
+    /**
+     * Checks that search finds a path exactly when Dijkstra's algorithm does, that the
+     *  path costs the same, and that it follows edges of graph. Sources are every
+     *  sourceStep-th id and targets every targetStep-th id.
+     * @param graph the graph search runs on
+     * @param sourceStep the gap between the ids of the sources checked
+     * @param targetStep the gap between the ids of the targets checked
+     * @param search the search under test
+     * @spec.requires graph and search are not null, and both steps are positive
+     */
+    public static <T> void assertPathsMatchDijkstra(CsrGraph<T> graph, int sourceStep,
+                                                    int targetStep, PathSearch<T> search) {
+        DijkstraPathFinder<T, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        for (int src = 0; src < graph.nodeCount(); src += sourceStep) {
+            for (int dst = 0; dst < graph.nodeCount(); dst += targetStep) {
+                Path<T> expected = dijkstra.shortestPath(graph, src, dst);
+                Path<T> actual = search.shortestPath(src, dst);
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+                    assertFollowsEdges(graph, actual, src, dst);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that search gives the same lowest costs as Dijkstra's algorithm, including
+     *  infinity where there is no path. Sources are every sourceStep-th id and targets
+     *  every targetStep-th id.
+     * @param graph the graph search runs on
+     * @param sourceStep the gap between the ids of the sources checked
+     * @param targetStep the gap between the ids of the targets checked
+     * @param search the search under test
+     * @spec.requires graph and search are not null, and both steps are positive
+     */
+    public static <T> void assertDistancesMatchDijkstra(CsrGraph<T> graph, int sourceStep,
+                                                        int targetStep, DistanceSearch search) {
+        DijkstraPathFinder<T, Double> dijkstra = new DijkstraPathFinder<>(Double::doubleValue);
+        for (int src = 0; src < graph.nodeCount(); src += sourceStep) {
+            double[] expected = dijkstra.distances(graph, src, dijkstra.newWorkspace());
+            for (int dst = 0; dst < graph.nodeCount(); dst += targetStep) {
+                assertEquals(expected[dst], search.distance(src, dst), EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Checks that path goes from node src to node dst along edges of graph, and that
+     *  its cost is the sum of its segments
+     * @param graph the graph path should be in
+     * @param path the path to check
+     * @param src the id of the node path should start at
+     * @param dst the id of the node path should end at
+     * @spec.requires graph and path are not null
+     */
+    public static <T> void assertFollowsEdges(CsrGraph<T> graph, Path<T> path,
+                                              int src, int dst) {
+        T at = graph.node(src);
+        double total = 0;
+        for (Path<T>.Segment segment: path) {
+            assertEquals(at, segment.getStart());
+            assertTrue(hasEdge(graph, graph.idOf(segment.getStart()),
+                    graph.idOf(segment.getEnd()), segment.getCost()));
+            at = segment.getEnd();
+            total += segment.getCost();
+        }
+        assertEquals(graph.node(dst), at);
+        assertEquals(path.getCost(), total, EPSILON);
+    }
+
+    /**
+     * Checks that path goes from start to end without visiting any node twice
+     * @param path the path to check
+     * @param start the node path should start at
+     * @param end the node path should end at
+     * @spec.requires path is not null
+     */
+    public static <T> void assertLoopless(Path<T> path, T start, T end) {
+        assertEquals(start, path.getStart());
+        assertEquals(end, path.getEnd());
+        Set<T> visited = new HashSet<>();
+        visited.add(start);
+        for (Path<T>.Segment segment: path) {
+            assertTrue(visited.add(segment.getEnd()));
+        }
+    }
+
+    // Tells whether graph has an edge from u to v that weighs exactly weight.
+    private static boolean hasEdge(CsrGraph<?> graph, int u, int v, double weight) {
+        for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+            if (graph.target(e) == v && graph.weight(e) == weight) { return true; }
+        }
+        return false;
+    }
+}